@@ -0,0 +1,145 @@
+package com.rips7.benchmark;
+
+import com.rips7.util.Coords;
+import com.rips7.util.collections.IntIntMap;
+import com.rips7.util.collections.IntSet;
+import com.rips7.util.collections.LongLongMap;
+import com.rips7.util.collections.LongSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive collections of {@code com.rips7.util.collections} against their boxed {@code java.util}
+ * counterparts, with the access patterns of the days: sets of packed grid positions (Day12, Day14), a memo keyed by
+ * {@code stone << 7 | steps} (Day11), and sums keyed by base-19 price changes (Day22). Each benchmark fills a new
+ * collection and then looks up every key plus as many misses, so that growth, hits and misses are all measured.
+ * <pre>
+ *   mvn -Pjmh package
+ *   java -jar target/benchmarks.jar CollectionsBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CollectionsBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  private long[] positions;
+  private long[] memoKeys;
+  private int[] changes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random random = new Random(42);
+    final int side = (int) Math.ceil(Math.sqrt(2.0 * size));
+    positions = new long[2 * size];
+    memoKeys = new long[2 * size];
+    changes = new int[2 * size];
+    for (int i = 0; i < 2 * size; i++) {
+      positions[i] = Coords.pack(random.nextInt(side), random.nextInt(side));
+      memoKeys[i] = (random.nextLong(1L << 40)) << 7 | random.nextInt(76);
+      changes[i] = random.nextInt(19 * 19 * 19 * 19);
+    }
+  }
+
+  @Benchmark
+  public int longSet() {
+    final LongSet set = new LongSet();
+    for (int i = 0; i < size; i++) {
+      set.add(positions[i]);
+    }
+    int found = 0;
+    for (final long position : positions) {
+      found += set.contains(position) ? 1 : 0;
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int hashSetOfLong() {
+    final Set<Long> set = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      set.add(positions[i]);
+    }
+    int found = 0;
+    for (final long position : positions) {
+      found += set.contains(position) ? 1 : 0;
+    }
+    return found;
+  }
+
+  @Benchmark
+  public long longLongMap() {
+    final LongLongMap map = new LongLongMap();
+    for (int i = 0; i < size; i++) {
+      map.put(memoKeys[i], i);
+    }
+    long sum = 0;
+    for (final long key : memoKeys) {
+      sum += map.get(key, 0);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long hashMapOfLongToLong() {
+    final Map<Long, Long> map = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put(memoKeys[i], (long) i);
+    }
+    long sum = 0;
+    for (final long key : memoKeys) {
+      sum += map.getOrDefault(key, 0L);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int intIntMapAndIntSet() {
+    final IntIntMap totals = new IntIntMap();
+    final IntSet seen = new IntSet();
+    int best = 0;
+    for (int i = 0; i < changes.length; i++) {
+      if (seen.add(changes[i])) {
+        best = Math.max(best, totals.addTo(changes[i], i & 7));
+      }
+    }
+    return best;
+  }
+
+  @Benchmark
+  public int hashMapAndHashSetOfInteger() {
+    final Map<Integer, Integer> totals = new HashMap<>();
+    final Set<Integer> seen = new HashSet<>();
+    int best = 0;
+    for (int i = 0; i < changes.length; i++) {
+      if (seen.add(changes[i])) {
+        best = Math.max(best, totals.merge(changes[i], i & 7, Integer::sum));
+      }
+    }
+    return best;
+  }
+
+}
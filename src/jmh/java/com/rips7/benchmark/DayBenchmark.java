@@ -0,0 +1,80 @@
+package com.rips7.benchmark;
+
+import com.rips7.day.AllDays;
+import com.rips7.day.Day;
+import com.rips7.day.ParsedDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every {@link Day} from {@link AllDays#getAllDays()}, one parameter value per day. The input is loaded once
+ * per trial, so that the {@code part1} and {@code part2} benchmarks only measure solving. For a {@link ParsedDay},
+ * {@code parse} measures parsing the input into its model, and both parts solve from a model parsed during setup. For
+ * other days, {@code parse} measures loading the input, and each part parses its own.
+ * <p>
+ * The heap is fixed per fork, so that allocation rates reported by {@code -prof gc} are comparable between days:
+ * <pre>
+ *   mvn -Pjmh package
+ *   java -jar target/benchmarks.jar DayBenchmark -p day=Day6 -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DayBenchmark {
+
+  @Param({
+    "Day1", "Day2", "Day3", "Day4", "Day5", "Day6", "Day7", "Day8", "Day9", "Day10",
+    "Day11", "Day12", "Day13", "Day14", "Day15", "Day16", "Day17", "Day18", "Day19", "Day20",
+    "Day21", "Day22", "Day23", "Day24", "Day25"
+  })
+  public String day;
+
+  private Day<?> instance;
+  private String input;
+  private Object model;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    instance = AllDays.getDay(day)
+      .orElseThrow(() -> new IllegalArgumentException("Unknown day %s".formatted(day)));
+    input = instance.loadInput();
+    model = instance instanceof ParsedDay<?, ?> parsedDay ? parsedDay.parse(input) : null;
+  }
+
+  @Benchmark
+  public Object parse() {
+    return instance instanceof ParsedDay<?, ?> parsedDay ? parsedDay.parse(input) : instance.loadInput();
+  }
+
+  @Benchmark
+  public Object part1() {
+    return instance instanceof ParsedDay<?, ?> ? parsedDay().part1(model) : instance.part1(input);
+  }
+
+  @Benchmark
+  public Object part2() {
+    return instance instanceof ParsedDay<?, ?> ? parsedDay().part2(model) : instance.part2(input);
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParsedDay<Object, ?> parsedDay() {
+    return (ParsedDay<Object, ?>) instance;
+  }
+
+}
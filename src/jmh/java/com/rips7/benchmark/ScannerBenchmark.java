@@ -0,0 +1,88 @@
+package com.rips7.benchmark;
+
+import com.rips7.day.AllDays;
+import com.rips7.day.Day;
+import com.rips7.util.Util;
+import com.rips7.util.io.TokenScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares reading every number of the inputs of the days that were moved onto {@link TokenScanner}: splitting into
+ * lines and tokens and parsing each token {@link String}, as the parsers used to, against scanning the input (as a
+ * {@link String} or as bytes) in place. Each benchmark sums the numbers, so that none of them is optimised away.
+ * <pre>
+ *   mvn -Pjmh package
+ *   java -jar target/benchmarks.jar ScannerBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ScannerBenchmark {
+
+  private static final Pattern DELIMITERS = Pattern.compile("[^-\\d]+");
+
+  @Param({"Day1", "Day2", "Day7", "Day13", "Day14", "Day18", "Day22"})
+  public String day;
+
+  private String input;
+  private ByteBuffer bytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Day<?> instance = AllDays.getDay(day)
+      .orElseThrow(() -> new IllegalArgumentException("Unknown day %s".formatted(day)));
+    input = instance.loadInput();
+    bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Benchmark
+  public long split() {
+    return Util.lines(input)
+      .flatMap(line -> Arrays.stream(DELIMITERS.split(line)))
+      .filter(token -> !token.isEmpty())
+      .mapToLong(Long::parseLong)
+      .sum();
+  }
+
+  @Benchmark
+  public long scanString() {
+    return sum(TokenScanner.of(input));
+  }
+
+  @Benchmark
+  public long scanBytes() {
+    return sum(TokenScanner.of(bytes));
+  }
+
+  private static long sum(final TokenScanner scanner) {
+    long sum = 0;
+    while (scanner.nextLine()) {
+      while (scanner.hasNextNumber()) {
+        sum += scanner.nextLong();
+      }
+    }
+    return sum;
+  }
+
+}
@@ -1,23 +1,169 @@
 package com.rips7;
 
 import com.rips7.day.Day;
+import com.rips7.runner.BatchRunner;
+import com.rips7.runner.BatchRunner.BatchInput;
+import com.rips7.runner.BatchRunner.BatchSummary;
+import com.rips7.runner.CommandLine;
+import com.rips7.runner.DayResult;
+import com.rips7.runner.DayScheduler;
+import com.rips7.runner.PerformanceReport;
+import com.rips7.runner.PerformanceReport.Regression;
 import com.rips7.util.Util;
 import com.rips7.util.Util.AnsiColor;
-import com.rips7.util.Util.TimedResult;
+import com.rips7.util.metrics.Metrics;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static com.rips7.day.AllDays.getAllDays;
+import static com.rips7.day.AllDays.getDays;
 import static com.rips7.util.Util.printColor;
-import static com.rips7.util.Util.time;
 
+/**
+ * Runs the days. See {@link CommandLine#USAGE} for the supported arguments. Only the selected days are instantiated.
+ */
 public class Main {
 
   public static void main(String[] args) {
-    TimedResult<?> result = time(() -> {
-      getAllDays().forEach(Day::run);
-      return null;
-    });
-    printColor("\nRan all days\n", Util.AnsiColor.GREEN);
-    printColor(result.timeInfo(), AnsiColor.YELLOW);
+    final CommandLine commandLine;
+    try {
+      commandLine = CommandLine.parse(args);
+    } catch (final IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(CommandLine.USAGE);
+      System.exit(2);
+      return;
+    }
+    if (commandLine.help()) {
+      System.out.print(CommandLine.USAGE);
+      return;
+    }
+
+    Metrics.setEnabled(commandLine.metrics() || Metrics.isEnabled());
+    final Recording recording = commandLine.jfr() != null ? startRecording() : null;
+    final int exitCode;
+    try {
+      exitCode = run(commandLine);
+    } finally {
+      if (recording != null) {
+        stopRecording(recording, commandLine.jfr());
+      }
+    }
+    if (exitCode != 0) {
+      System.exit(exitCode);
+    }
+  }
+
+  /**
+   * Runs the days, or a batch, as selected on the command line
+   *
+   * @param commandLine the {@link CommandLine}
+   * @return the exit code
+   */
+  private static int run(final CommandLine commandLine) {
+    final List<Day<?>> days = (commandLine.days().isEmpty() ? getAllDays() : getDays(commandLine.days())).toList();
+    if (commandLine.batch() != null) {
+      runBatch(days.getFirst(), commandLine);
+      return 0;
+    }
+
+    // Order the parts by the time they took in the previous report, or in the --compare baseline, when there is one.
+    // The scheduler falls back to the bundled baseline report for the parts that neither covers.
+    final Path previousPath = commandLine.report() != null && Files.exists(commandLine.report()) ?
+      commandLine.report() :
+      commandLine.compare();
+    final PerformanceReport previous = previousPath != null && Files.exists(previousPath) ?
+      PerformanceReport.read(previousPath) :
+      null;
+    // Only the wall time is measured here, so that the resource measurements of the parts are not nested in another
+    final long start = System.nanoTime();
+    final List<DayResult> results;
+    try (DayScheduler scheduler = commandLine.parallel() ? DayScheduler.forkJoin() : DayScheduler.sequential()) {
+      results = scheduler.run(days, commandLine.options(), previous,
+        dayResult -> dayResult.print(commandLine.stats(), commandLine.allocation()));
+    }
+    final long wallNanos = System.nanoTime() - start;
+    printColor("\nRan %s\n".formatted(commandLine.days().isEmpty() ? "all days" : "%s day(s)".formatted(days.size())),
+      Util.AnsiColor.GREEN);
+    printColor("Took %s".formatted(Util.formatDuration(wallNanos)), AnsiColor.YELLOW);
+    // Said once here rather than next to every part
+    if (commandLine.allocation() && !results.stream().allMatch(DayResult::isProcessWideMeasured)) {
+      printColor("%nGCs and peak heap are only measured for parts that ran alone, e.g. with --no-parallel%n"
+        .formatted(), AnsiColor.CYAN);
+    }
+
+    final Path reportPath = commandLine.report();
+    final Path baselinePath = commandLine.compare();
+    final PerformanceReport report = PerformanceReport.of(results);
+    if (reportPath != null) {
+      report.write(reportPath);
+      System.out.printf("%nWrote report to %s%n", reportPath);
+    }
+    if (baselinePath != null) {
+      final List<Regression> regressions = report.compare(PerformanceReport.read(baselinePath), commandLine.threshold());
+      if (!regressions.isEmpty()) {
+        printColor("%nRegressions against %s:%n".formatted(baselinePath), AnsiColor.RED);
+        regressions.forEach(regression -> printColor("  %s%n".formatted(regression), AnsiColor.RED));
+        return 1;
+      }
+      printColor("%nNo regressions against %s%n".formatted(baselinePath), AnsiColor.GREEN);
+    }
+    return 0;
+  }
+
+  /**
+   * Starts a Flight Recorder recording with the {@code profile} settings, which sample the stacks often enough to find
+   * the hot spots of a day. The custom events of the days, parts and searches are enabled by default.
+   */
+  private static Recording startRecording() {
+    try {
+      final Recording recording = new Recording(Configuration.getConfiguration("profile"));
+      recording.setName("aoc2024");
+      recording.start();
+      return recording;
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot start the recording", e);
+    } catch (final ParseException e) {
+      throw new RuntimeException("Cannot read the recording settings", e);
+    }
+  }
+
+  private static void stopRecording(final Recording recording, final Path path) {
+    try (recording) {
+      recording.stop();
+      recording.dump(path);
+      System.err.printf("Wrote recording to %s%n", path);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot write the recording to '%s'".formatted(path), e);
+    }
+  }
+
+  /**
+   * Solves a batch of inputs with a single day. The answers go to the standard output, one tab-separated line per
+   * input, and the summary goes to the standard error, so that the answers can be piped.
+   */
+  private static void runBatch(final Day<?> day, final CommandLine commandLine) {
+    final Stream<BatchInput> inputs = commandLine.batch().equals("-") ?
+      new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).lines()
+        .filter(line -> !line.isBlank())
+        .map(line -> BatchInput.of(Path.of(line.strip()))) :
+      BatchInput.ofDirectory(Path.of(commandLine.batch()));
+    try (BatchRunner runner = BatchRunner.of(day, commandLine.options().parts(), commandLine.threads(),
+      commandLine.queue())) {
+      final BatchSummary summary = runner.run(inputs, result -> System.out.println(result.toLine()));
+      System.err.printf("%s: %s%n", day.name(), summary);
+    }
   }
 
 }
@@ -0,0 +1,129 @@
+package com.rips7.daemon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * The line-based protocol between the {@link SolverDaemon} and the {@link SolverClient}. Every message is a line of
+ * space-separated fields, except for the input of a {@code SOLVE} request, which follows its line as raw bytes.
+ * <pre>
+ *   PING                             -&gt; PONG
+ *   DAYS                             -&gt; DAYS Day1 Day2 ...
+ *   SOLVE &lt;day&gt; &lt;1|2|*&gt; &lt;bytes&gt;     -&gt; [PARSED &lt;day&gt; &lt;nanos&gt;]
+ *   &lt;bytes of input&gt;                    ANSWER &lt;day&gt; &lt;part&gt; &lt;nanos&gt; &lt;answer&gt;  (one per part, as each finishes)
+ *                                       ERROR &lt;message&gt;                          (instead of an answer on failure)
+ *                                       END &lt;nanos&gt;
+ *   SHUTDOWN                         -&gt; BYE
+ * </pre>
+ * A {@code SOLVE} request with 0 bytes of input solves the bundled input of the day, and inputs are limited to
+ * {@link #MAX_INPUT_BYTES}. Requests on a connection are served one after the other.
+ */
+public final class Protocol {
+
+  public static final String PING = "PING";
+  public static final String PONG = "PONG";
+  public static final String DAYS = "DAYS";
+  public static final String SOLVE = "SOLVE";
+  public static final String PARSED = "PARSED";
+  public static final String ANSWER = "ANSWER";
+  public static final String ERROR = "ERROR";
+  public static final String END = "END";
+  public static final String SHUTDOWN = "SHUTDOWN";
+  public static final String BYE = "BYE";
+
+  /**
+   * The default Unix-domain socket of the daemon
+   */
+  public static final Path DEFAULT_SOCKET = Path.of(System.getProperty("java.io.tmpdir"), "aoc2024-solver.sock");
+
+  /**
+   * The largest input of a {@code SOLVE} request
+   */
+  public static final long MAX_INPUT_BYTES = 64L * 1024 * 1024;
+
+  private Protocol() { }
+
+  /**
+   * Creates the address of the daemon: a loopback TCP port if one is given, the given Unix-domain socket otherwise
+   *
+   * @param socket the path of the Unix-domain socket, or {@code null} for the default
+   * @param port   the loopback TCP port, or {@code null} to use a Unix-domain socket
+   * @return the {@link SocketAddress}
+   */
+  public static SocketAddress address(final Path socket, final Integer port) {
+    if (port != null) {
+      return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+    return UnixDomainSocketAddress.of(socket != null ? socket : DEFAULT_SOCKET);
+  }
+
+  /**
+   * Reads the value of a command-line flag
+   *
+   * @param args the command-line arguments
+   * @param i    the index of the value, right after its flag
+   * @return the value
+   * @throws IllegalArgumentException if the flag is the last argument
+   */
+  static String value(final String[] args, final int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException("Missing value after %s".formatted(args[i - 1]));
+    }
+    return args[i];
+  }
+
+  /**
+   * Reads the numeric value of a command-line flag
+   *
+   * @param args the command-line arguments
+   * @param i    the index of the value, right after its flag
+   * @return the value
+   * @throws IllegalArgumentException if the flag is the last argument, or its value is not a number
+   */
+  static int parseInt(final String[] args, final int i) {
+    try {
+      return Integer.parseInt(value(args, i));
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("Expected a number after %s, got %s".formatted(args[i - 1], args[i]));
+    }
+  }
+
+  static ServerSocketChannel openServer(final SocketAddress address) throws IOException {
+    return address instanceof UnixDomainSocketAddress ?
+      ServerSocketChannel.open(StandardProtocolFamily.UNIX) :
+      ServerSocketChannel.open();
+  }
+
+  static SocketChannel openClient(final SocketAddress address) throws IOException {
+    return SocketChannel.open(address);
+  }
+
+  /**
+   * Reads a line terminated by {@code \n}
+   *
+   * @param in the input stream
+   * @return the line, without the terminator, or {@code null} at the end of the stream
+   * @throws IOException if reading fails
+   */
+  static String readLine(final InputStream in) throws IOException {
+    final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != -1 && b != '\n') {
+      line.write(b);
+    }
+    if (b == -1 && line.size() == 0) {
+      return null;
+    }
+    return line.toString(StandardCharsets.UTF_8);
+  }
+}
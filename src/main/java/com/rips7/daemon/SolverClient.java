@@ -0,0 +1,159 @@
+package com.rips7.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A client of the {@link SolverDaemon}, for scripts to solve inputs on a warm JVM. Supported arguments:
+ * <pre>
+ *   [--socket &lt;path&gt; | --port &lt;port&gt;] solve &lt;day&gt; [1|2|*] [&lt;file&gt; | -]
+ *   [--socket &lt;path&gt; | --port &lt;port&gt;] ping | days | shutdown
+ * </pre>
+ * {@code solve} reads the input from the given file, from the standard input with {@code -}, or uses the bundled input
+ * of the day when no input is given. The responses are printed as they arrive (see {@link Protocol}).
+ */
+public final class SolverClient implements AutoCloseable {
+
+  public static final String USAGE = """
+    Usage: SolverClient [--socket <path> | --port <port>] <command>
+      solve <day> [1|2|*] [<file> | -]   solve an input (default the bundled input of the day)
+      ping | days | shutdown             check, list the days of, or stop the daemon
+    """;
+
+  private final SocketChannel channel;
+  private final InputStream in;
+  private final OutputStream out;
+
+  private SolverClient(final SocketChannel channel) {
+    this.channel = channel;
+    this.in = new BufferedInputStream(Channels.newInputStream(channel));
+    this.out = Channels.newOutputStream(channel);
+  }
+
+  /**
+   * Connects to a running daemon
+   *
+   * @param address the address of the daemon
+   * @return the {@link SolverClient}
+   */
+  public static SolverClient connect(final SocketAddress address) {
+    try {
+      return new SolverClient(Protocol.openClient(address));
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot connect to the solver daemon at %s".formatted(address), e);
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path socket = null;
+    Integer port = null;
+    final List<String> command = new ArrayList<>();
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--socket" -> socket = Path.of(Protocol.value(args, ++i));
+          case "--port" -> port = Protocol.parseInt(args, ++i);
+          default -> command.add(args[i]);
+        }
+      }
+      if (command.isEmpty()) {
+        throw new IllegalArgumentException("Expected a command: solve, ping, days or shutdown");
+      }
+      switch (command.getFirst()) {
+        case "solve" -> {
+          if (command.size() < 2) {
+            throw new IllegalArgumentException("Expected solve <day> [1|2|*] [<file> | -]");
+          }
+        }
+        case "ping", "days", "shutdown" -> { }
+        default -> throw new IllegalArgumentException("Unknown command %s".formatted(command.getFirst()));
+      }
+    } catch (final IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+      return;
+    }
+
+    try (SolverClient client = connect(Protocol.address(socket, port))) {
+      switch (command.getFirst()) {
+        case "solve" -> {
+          final String part = command.size() > 2 ? command.get(2) : "*";
+          final byte[] input = command.size() > 3 ?
+            (command.get(3).equals("-") ? System.in.readAllBytes() : Files.readAllBytes(Path.of(command.get(3)))) :
+            new byte[0];
+          final boolean[] failed = { false };
+          client.solve(command.get(1), part, input, line -> {
+            failed[0] |= line.startsWith(Protocol.ERROR);
+            System.out.println(line);
+          });
+          if (failed[0]) {
+            System.exit(1);
+          }
+        }
+        case "ping" -> System.out.println(client.request(Protocol.PING));
+        case "days" -> System.out.println(client.request(Protocol.DAYS));
+        case "shutdown" -> System.out.println(client.request(Protocol.SHUTDOWN));
+        default -> throw new IllegalStateException("Unexpected command %s".formatted(command.getFirst()));
+      }
+    }
+  }
+
+  /**
+   * Solves an input, and hands each response line to the callback as soon as it arrives
+   *
+   * @param day    the name of the day (e.g. {@code Day9})
+   * @param part   the part: {@code 1}, {@code 2} or {@code *} for both
+   * @param input  the input, or empty for the bundled input of the day
+   * @param onLine the callback for each response line, up to and including the {@code END} line
+   * @throws IOException if the connection fails
+   */
+  public void solve(final String day, final String part, final byte[] input, final Consumer<String> onLine)
+      throws IOException {
+    out.write("%s %s %s %s\n".formatted(Protocol.SOLVE, day, part, input.length).getBytes(StandardCharsets.UTF_8));
+    out.write(input);
+    out.flush();
+    String line;
+    do {
+      line = Protocol.readLine(in);
+      if (line == null) {
+        throw new IOException("The daemon closed the connection");
+      }
+      onLine.accept(line);
+    } while (!line.startsWith(Protocol.END));
+  }
+
+  /**
+   * Sends a single-line request and waits for its single-line response
+   *
+   * @param request the request
+   * @return the response
+   * @throws IOException if the connection fails
+   */
+  public String request(final String request) throws IOException {
+    out.write("%s\n".formatted(request).getBytes(StandardCharsets.UTF_8));
+    out.flush();
+    final String response = Protocol.readLine(in);
+    if (response == null) {
+      throw new IOException("The daemon closed the connection");
+    }
+    return response;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
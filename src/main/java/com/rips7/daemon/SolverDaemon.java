@@ -0,0 +1,351 @@
+package com.rips7.daemon;
+
+import com.rips7.day.AllDays;
+import com.rips7.day.Day;
+import com.rips7.day.ParsedDay;
+import com.rips7.util.Util;
+import com.rips7.util.Util.TimedResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A long-lived process that keeps the days loaded and JIT-compiled, and solves requests from a local socket, so that
+ * short jobs do not pay for JVM startup, class loading and warm-up. The days are warmed up on their bundled inputs
+ * before the socket is opened. Parts are solved on a fixed pool of solver threads, while each connection is served on
+ * its own virtual thread. See {@link Protocol} for the messages. Supported arguments:
+ * <ul>
+ *   <li>{@code --socket <path>}: the Unix-domain socket to listen on (default {@link Protocol#DEFAULT_SOCKET})</li>
+ *   <li>{@code --port <port>}: listen on a loopback TCP port instead</li>
+ *   <li>{@code --threads <n>}: the number of solver threads (default one per available processor)</li>
+ *   <li>{@code --warmup <n>}: the number of warm-up runs of each part (default 1)</li>
+ * </ul>
+ * The days have no state of their own, so a single instance of each day is shared by all the solver threads.
+ */
+public final class SolverDaemon implements AutoCloseable {
+
+  public static final String USAGE = """
+    Usage: SolverDaemon [options]
+          --socket <path>   the Unix-domain socket to listen on (default %s)
+          --port <port>     listen on a loopback TCP port instead
+          --threads <n>     the number of solver threads (default one per available processor)
+          --warmup <n>      the number of warm-up runs of each part (default 1)
+    """.formatted(Protocol.DEFAULT_SOCKET);
+
+  private final Map<String, Day<?>> days;
+  private final ExecutorService solvers;
+  private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+  private final SocketAddress address;
+  private ServerSocketChannel server;
+  private boolean bound;
+
+  private SolverDaemon(final List<Day<?>> days, final int threads, final SocketAddress address) {
+    this.days = days.stream()
+      .collect(Collectors.toMap(Day::name, Function.identity(), (d1, d2) -> d1, LinkedHashMap::new));
+    this.solvers = Executors.newFixedThreadPool(threads);
+    this.address = address;
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path socket = null;
+    Integer port = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int warmups = 1;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--socket" -> socket = Path.of(Protocol.value(args, ++i));
+          case "--port" -> port = Protocol.parseInt(args, ++i);
+          case "--threads" -> threads = Protocol.parseInt(args, ++i);
+          case "--warmup" -> warmups = Protocol.parseInt(args, ++i);
+          default -> throw new IllegalArgumentException("Unknown argument %s".formatted(args[i]));
+        }
+      }
+    } catch (final IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+      return;
+    }
+    try (SolverDaemon daemon = create(AllDays.getAllDays().toList(), threads, Protocol.address(socket, port))) {
+      daemon.warmUp(warmups);
+      daemon.serve();
+    }
+  }
+
+  /**
+   * Creates a daemon. Nothing is warmed up or opened until {@link #warmUp(int)} and {@link #serve()}.
+   *
+   * @param days    the days to serve
+   * @param threads the number of solver threads
+   * @param address the address to listen on
+   * @return the {@link SolverDaemon}
+   */
+  public static SolverDaemon create(final List<Day<?>> days, final int threads, final SocketAddress address) {
+    return new SolverDaemon(days, threads, address);
+  }
+
+  /**
+   * Runs both parts of every day on its bundled input, so that the code is loaded and compiled before the first
+   * request. Days whose warm-up fails are reported and still served.
+   *
+   * @param runs the number of runs of each part
+   */
+  public void warmUp(final int runs) {
+    if (runs < 1) {
+      return;
+    }
+    final TimedResult<Void> warmUp = Util.time(() -> {
+      solvers.invokeAll(days.values().stream()
+        .map(day -> (Callable<Void>) () -> {
+          try {
+            final String input = day.loadInput();
+            for (int i = 0; i < runs; i++) {
+              day.part1(input);
+              day.part2(input);
+            }
+          } catch (final RuntimeException e) {
+            System.err.printf("Warm-up of %s failed: %s%n", day.name(), e);
+          }
+          return null;
+        })
+        .toList());
+      return null;
+    });
+    System.out.printf("Warmed up %s days (%s)%n", days.size(), warmUp.timeInfo());
+  }
+
+  /**
+   * Listens on the socket and serves connections, until a {@code SHUTDOWN} request or until the daemon is closed
+   *
+   * @throws IOException if the socket cannot be opened
+   */
+  public void serve() throws IOException {
+    if (address instanceof UnixDomainSocketAddress unix) {
+      removeStaleSocket(unix);
+    }
+    server = Protocol.openServer(address);
+    server.bind(address);
+    bound = true;
+    System.out.printf("Listening on %s%n", address);
+    try {
+      while (true) {
+        final SocketChannel client = server.accept();
+        connections.submit(() -> handle(client));
+      }
+    } catch (final ClosedChannelException e) {
+      // Closed by a SHUTDOWN request
+    }
+  }
+
+  /**
+   * Deletes a socket file left behind by a previous daemon, which would make the bind fail. Anything else at the path,
+   * including the socket of a daemon that is still listening, is left alone and fails the start.
+   *
+   * @param address the address of the socket
+   * @throws IOException if the path is taken
+   */
+  private static void removeStaleSocket(final UnixDomainSocketAddress address) throws IOException {
+    final Path path = address.getPath();
+    if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+      return;
+    }
+    // Sockets are neither regular files, directories nor links
+    if (!Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther()) {
+      throw new IOException("%s exists and is not a socket".formatted(path));
+    }
+    try {
+      Protocol.openClient(address).close();
+    } catch (final ConnectException e) {
+      // Nothing is listening, so the socket is stale
+      Files.delete(path);
+      return;
+    }
+    throw new IOException("Another daemon is already listening on %s".formatted(path));
+  }
+
+  private void handle(final SocketChannel client) {
+    try (client) {
+      final InputStream in = new BufferedInputStream(Channels.newInputStream(client));
+      final Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(client),
+        StandardCharsets.UTF_8));
+      String line;
+      while ((line = Protocol.readLine(in)) != null) {
+        final String[] fields = line.trim().split(" ");
+        try {
+          switch (fields[0]) {
+            case Protocol.PING -> send(out, Protocol.PONG);
+            case Protocol.DAYS -> send(out, "%s %s".formatted(Protocol.DAYS, String.join(" ", days.keySet())));
+            case Protocol.SOLVE -> solve(fields, in, out);
+            case Protocol.SHUTDOWN -> {
+              send(out, Protocol.BYE);
+              server.close();
+              return;
+            }
+            default -> send(out, "%s Unknown request %s".formatted(Protocol.ERROR, line));
+          }
+        } catch (final RuntimeException e) {
+          // The request may have been read only partly, so the connection cannot go on, but the client is told why
+          send(out, "%s %s".formatted(Protocol.ERROR, e));
+          System.err.printf("Request %s failed: %s%n", line, e);
+          return;
+        }
+      }
+    } catch (final IOException e) {
+      System.err.printf("Connection failed: %s%n", e);
+    }
+  }
+
+  /**
+   * Solves a {@code SOLVE <day> <part> <bytes>} request, and streams back the answer of each part as soon as it is
+   * ready
+   */
+  private void solve(final String[] fields, final InputStream in, final Writer out) throws IOException {
+    final long start = System.nanoTime();
+    if (fields.length != 4 || !fields[3].matches("\\d+")) {
+      // Without the length, the input cannot be skipped, so the connection cannot go on
+      send(out, "%s Expected SOLVE <day> <1|2|*> <bytes>".formatted(Protocol.ERROR));
+      throw new IOException("Malformed request %s".formatted(String.join(" ", fields)));
+    }
+    long length;
+    try {
+      length = Long.parseLong(fields[3]);
+    } catch (final NumberFormatException e) {
+      // Only too many digits fail to parse
+      length = Long.MAX_VALUE;
+    }
+    if (length > Protocol.MAX_INPUT_BYTES) {
+      // The input is not read, so the connection cannot go on
+      send(out, "%s Input of %s bytes is larger than %s".formatted(Protocol.ERROR, fields[3], Protocol.MAX_INPUT_BYTES));
+      throw new IOException("Input of %s bytes is too large".formatted(fields[3]));
+    }
+    final byte[] bytes = in.readNBytes((int) length);
+    if (bytes.length != length) {
+      throw new IOException("Input truncated after %s of %s bytes".formatted(bytes.length, length));
+    }
+    final Day<?> day = days.get(fields[1]);
+    if (day == null) {
+      send(out, "%s Unknown day %s".formatted(Protocol.ERROR, fields[1]));
+    } else if (!List.of("1", "2", "*").contains(fields[2])) {
+      send(out, "%s Unknown part %s".formatted(Protocol.ERROR, fields[2]));
+    } else {
+      try {
+        final String input = length > 0 ? new String(bytes, StandardCharsets.UTF_8) : day.loadInput();
+        final List<Integer> parts = fields[2].equals("*") ? List.of(1, 2) : List.of(Integer.parseInt(fields[2]));
+        if (day instanceof ParsedDay<?, ?> parsedDay) {
+          solveParsed(parsedDay, input, parts, out);
+        } else {
+          solve(day, input, parts, out);
+        }
+      } catch (final RuntimeException e) {
+        send(out, "%s %s".formatted(Protocol.ERROR, e));
+      }
+    }
+    send(out, "%s %s".formatted(Protocol.END, System.nanoTime() - start));
+  }
+
+  private <T> void solve(final Day<T> day, final String input, final List<Integer> parts, final Writer out)
+      throws IOException {
+    final CompletionService<Answer> answers = new ExecutorCompletionService<>(solvers);
+    for (final int part : parts) {
+      answers.submit(() -> new Answer(part, Util.time(() -> part == 1 ? day.part1(input) : day.part2(input))));
+    }
+    streamAnswers(day, answers, parts.size(), out);
+  }
+
+  private <M, T> void solveParsed(final ParsedDay<M, T> day, final String input, final List<Integer> parts,
+                                  final Writer out) throws IOException {
+    final TimedResult<M> parsed;
+    try {
+      parsed = solvers.submit(() -> Util.time(() -> day.parse(input))).get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    send(out, "%s %s %s".formatted(Protocol.PARSED, day.name(), parsed.stats().minNanos()));
+    final CompletionService<Answer> answers = new ExecutorCompletionService<>(solvers);
+    for (final int part : parts) {
+      answers.submit(() -> new Answer(part,
+        Util.time(() -> part == 1 ? day.part1(parsed.res()) : day.part2(parsed.res()))));
+    }
+    streamAnswers(day, answers, parts.size(), out);
+  }
+
+  private void streamAnswers(final Day<?> day, final CompletionService<Answer> answers, final int count,
+                             final Writer out) throws IOException {
+    for (int i = 0; i < count; i++) {
+      try {
+        final Answer answer = answers.take().get();
+        send(out, "%s %s %s %s %s".formatted(Protocol.ANSWER, day.name(), answer.part,
+          answer.result.stats().minNanos(), answer.result.res()));
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final ExecutionException e) {
+        send(out, "%s %s".formatted(Protocol.ERROR, e.getCause()));
+      }
+    }
+  }
+
+  private static void send(final Writer out, final String line) throws IOException {
+    out.write(line.replace('\n', ' '));
+    out.write('\n');
+    out.flush();
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (server != null) {
+        server.close();
+      }
+      // Only delete the socket this daemon created, and not whatever was at its path when it failed to start
+      if (bound && address instanceof UnixDomainSocketAddress unix) {
+        Files.deleteIfExists(unix.getPath());
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      connections.shutdownNow();
+      solvers.shutdownNow();
+    }
+  }
+
+  /**
+   * The answer of a part
+   *
+   * @param part   the part
+   * @param result the timed result
+   */
+  private record Answer(int part, TimedResult<?> result) { }
+}
@@ -1,43 +1,89 @@
 package com.rips7.day;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+/**
+ * The registry of the days. Days are discovered with {@link ServiceLoader} from
+ * {@code META-INF/services/com.rips7.day.Day}, so that adding a day only means listing it there. The provider classes
+ * are indexed by the number in their name ({@code DayN}) without being instantiated, and a day is only instantiated
+ * the first time it is selected. Days have no state of their own, so the instances are cached and shared, and
+ * repeated runs (daemon, benchmarks) do not create them again.
+ */
 public class AllDays {
 
+  private static final Pattern NAME = Pattern.compile("Day(\\d+)");
+
+  /**
+   * The providers of the days, by number
+   */
+  private static final NavigableMap<Integer, ServiceLoader.Provider<Day<?>>> PROVIDERS = discover();
+
+  private static final Map<Integer, Day<?>> INSTANCES = new ConcurrentHashMap<>();
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static NavigableMap<Integer, ServiceLoader.Provider<Day<?>>> discover() {
+    final NavigableMap<Integer, ServiceLoader.Provider<Day<?>>> providers = new TreeMap<>();
+    ServiceLoader.load(Day.class).stream().forEach(provider -> {
+      final String name = provider.type().getSimpleName();
+      final Matcher matcher = NAME.matcher(name);
+      if (!matcher.matches()) {
+        throw new IllegalStateException("Day %s is not named DayN".formatted(provider.type().getName()));
+      }
+      final ServiceLoader.Provider<Day<?>> previous = providers.put(Integer.parseInt(matcher.group(1)),
+        (ServiceLoader.Provider) provider);
+      if (previous != null) {
+        throw new IllegalStateException("Day %s is registered twice".formatted(name));
+      }
+    });
+    return providers;
+  }
+
   public static Stream<Day<?>> getAllDays() {
-    return Stream.of(
-        Day1.class,
-        Day2.class,
-        Day3.class,
-        Day4.class,
-        Day5.class,
-        Day6.class,
-        Day7.class,
-        Day8.class,
-        Day9.class,
-        Day10.class,
-        Day11.class,
-        Day12.class,
-        Day13.class,
-        Day14.class,
-        Day15.class,
-        Day16.class,
-        Day17.class,
-        Day18.class,
-        Day19.class,
-        Day20.class,
-        Day21.class,
-        Day22.class,
-        Day23.class,
-        Day24.class,
-        Day25.class)
-      .map(clazz -> {
-        try {
-          return clazz.getConstructor().newInstance();
-        } catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-          throw new RuntimeException(e);
-        }
+    return PROVIDERS.keySet().stream().map(AllDays::getDay);
+  }
+
+  /**
+   * Gets the given days, in order. Only the selected days are instantiated.
+   *
+   * @param numbers the numbers of the days
+   * @return the stream of days
+   */
+  public static Stream<Day<?>> getDays(final Collection<Integer> numbers) {
+    numbers.stream()
+      .filter(number -> !PROVIDERS.containsKey(number))
+      .findFirst()
+      .ifPresent(number -> {
+        throw new IllegalArgumentException("No day %s".formatted(number));
       });
+    return PROVIDERS.keySet().stream()
+      .filter(numbers::contains)
+      .map(AllDays::getDay);
+  }
+
+  /**
+   * Gets a day by name. Only the selected day is instantiated.
+   *
+   * @param name the name of the day (e.g. {@code Day5})
+   * @return the day, or empty if there is no such day
+   */
+  public static Optional<Day<?>> getDay(final String name) {
+    final Matcher matcher = NAME.matcher(name);
+    if (!matcher.matches() || !PROVIDERS.containsKey(Integer.parseInt(matcher.group(1)))) {
+      return Optional.empty();
+    }
+    return Optional.of(getDay(Integer.parseInt(matcher.group(1))));
+  }
+
+  private static Day<?> getDay(final int number) {
+    return INSTANCES.computeIfAbsent(number, n -> PROVIDERS.get(n).get());
   }
 }
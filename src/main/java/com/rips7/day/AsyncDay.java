@@ -0,0 +1,51 @@
+package com.rips7.day;
+
+import com.rips7.util.concurrent.CancellationToken;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The asynchronous variant of a {@link Day}, whose parts run on an executor and can be given up on. Cancelling the
+ * future of a part, or timing it out with {@link CompletableFuture#orTimeout}, cancels the {@link CancellationToken}
+ * of the part, so that it stops at its next checkpoint and frees its thread. Parts without checkpoints run to the end,
+ * but their result is discarded.
+ *
+ * @param <T> the type of the answers
+ */
+public interface AsyncDay<T> {
+
+  String name();
+
+  CompletableFuture<T> part1(String input);
+
+  CompletableFuture<T> part2(String input);
+
+  /**
+   * Adapts a {@link Day} to run asynchronously
+   *
+   * @param day      the day
+   * @param executor the executor to run the parts on
+   * @return the {@link AsyncDay}
+   * @param <T> the type of the answers
+   */
+  static <T> AsyncDay<T> of(final Day<T> day, final Executor executor) {
+    return new AsyncDay<>() {
+      @Override
+      public String name() {
+        return day.name();
+      }
+
+      @Override
+      public CompletableFuture<T> part1(final String input) {
+        return CancellationToken.supplyAsync(() -> day.part1(input), executor);
+      }
+
+      @Override
+      public CompletableFuture<T> part2(final String input) {
+        return CancellationToken.supplyAsync(() -> day.part2(input), executor);
+      }
+    };
+  }
+
+}
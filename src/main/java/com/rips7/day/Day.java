@@ -1,9 +1,18 @@
 package com.rips7.day;
 
+import com.rips7.runner.DayResult;
+import com.rips7.runner.RunOptions;
 import com.rips7.util.Util;
+import com.rips7.util.jfr.DayEvent;
+import com.rips7.util.jfr.PartEvent;
+import com.rips7.util.io.MappedInput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 
 import static com.rips7.util.Util.TimedResult;
-import static com.rips7.util.Util.printColor;
 import static com.rips7.util.Util.time;
 
 public interface Day<T> {
@@ -13,23 +22,61 @@ public interface Day<T> {
   T part2(String input);
 
   default void run() {
-    System.out.printf("----- %s -----%n", getClass().getSimpleName());
+    run(RunOptions.DEFAULT);
+  }
+
+  default void run(final RunOptions options) {
+    solve(options).print();
+  }
+
+  default DayResult solve(final RunOptions options) {
+    return DayEvent.record(name(), options.parts().size(), () -> new DayResult(name(), null,
+      options.runs(1) ? timePart1(options) : null,
+      options.runs(2) ? timePart2(options) : null));
+  }
+
+  default TimedResult<T> timePart1(final RunOptions options) {
+    return PartEvent.record(name(), 1, options.warmups() + options.iterations(),
+      () -> time(() -> part1(loadInput(options)), options.warmups(), options.iterations()));
+  }
 
-    final TimedResult<T> part1Res = time(() -> part1(loadInput()));
-    System.out.print("Part 1: ");
-    printColor("%s ".formatted(part1Res.res()), Util.AnsiColor.GREEN);
-    printColor("(%s)%n".formatted(part1Res.timeInfo()), Util.AnsiColor.YELLOW);
+  default TimedResult<T> timePart2(final RunOptions options) {
+    return PartEvent.record(name(), 2, options.warmups() + options.iterations(),
+      () -> time(() -> part2(loadInput(options)), options.warmups(), options.iterations()));
+  }
+
+  default String name() {
+    return getClass().getSimpleName();
+  }
+
+  default String inputResource() {
+    return "/%s/input".formatted(name().toLowerCase());
+  }
+
+  default ByteBuffer loadInputBuffer() {
+    return MappedInput.mapResource(inputResource());
+  }
 
-    final TimedResult<T> part2Res = time(() -> part2(loadInput()));
-    System.out.print("Part 2: ");
-    printColor("%s ".formatted(part2Res.res()), Util.AnsiColor.GREEN);
-    printColor("(%s)%n".formatted(part2Res.timeInfo()), Util.AnsiColor.YELLOW);
+  default ByteBuffer loadInputBuffer(final RunOptions options) {
+    return options.input(name())
+      .map(MappedInput::map)
+      .orElseGet(this::loadInputBuffer);
+  }
 
-    System.out.println("----------------");
+  default String loadInput(final RunOptions options) {
+    return options.input(name())
+      .map(path -> {
+        try {
+          return Files.readString(path);
+        } catch (final IOException e) {
+          throw new UncheckedIOException("Cannot read input file '%s'".formatted(path), e);
+        }
+      })
+      .orElseGet(this::loadInput);
   }
 
   default String loadInput() {
-    final String inputFilename = "/%s/input".formatted(this.getClass().getSimpleName().toLowerCase());
+    final String inputFilename = inputResource();
     try {
       return Util.readResource(inputFilename);
     } catch (final NullPointerException e) {
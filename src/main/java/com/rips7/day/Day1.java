@@ -1,7 +1,10 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.io.TokenScanner;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -10,21 +13,46 @@ import java.util.Queue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
-public class Day1 implements Day<Long> {
+public class Day1 implements ParsedDay<Day1.LocationLists, Long> {
 
   @Override
-  public Long part1(String input) {
+  public LocationLists parse(String input) {
+    return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  @Override
+  public LocationLists parse(ByteBuffer input) {
+    // Read each line in place, without decoding the whole input into a String
+    final TokenScanner scanner = TokenScanner.of(input);
+    long[] first = new long[1024];
+    long[] second = new long[1024];
+    int size = 0;
+    while (scanner.nextLine()) {
+      if (!scanner.hasNextNumber()) {
+        continue;
+      }
+      if (size == first.length) {
+        first = Arrays.copyOf(first, size * 2);
+        second = Arrays.copyOf(second, size * 2);
+      }
+      // Each line consists of two numbers, separated by whitespace
+      first[size] = scanner.nextLong();
+      second[size] = scanner.nextLong();
+      size++;
+    }
+    return new LocationLists(Arrays.copyOf(first, size), Arrays.copyOf(second, size));
+  }
+
+  @Override
+  public Long part1(LocationLists lists) {
     // Define two queues to keep elements sorted
     final Queue<Long> firstList = new PriorityQueue<>();
     final Queue<Long> secondList = new PriorityQueue<>();
 
-    // Parse numbers from each line and add them to the corresponding queue
-    parseLines(input).forEach(parts -> {
-      firstList.offer(parts[0]);
-      secondList.offer(parts[1]);
-    });
+    // Add the numbers of each list to the corresponding queue
+    Arrays.stream(lists.first()).forEach(firstList::offer);
+    Arrays.stream(lists.second()).forEach(secondList::offer);
 
     // Calculate all the distances and return their sum
     return IntStream.range(0, firstList.size())
@@ -35,17 +63,11 @@ public class Day1 implements Day<Long> {
   }
 
   @Override
-  public Long part2(String input) {
-    // Parse numbers from each line into two separate lists
-    final List<List<Long>> lists = parseLines(input)
-        .collect(Collectors.teeing(
-            Collectors.mapping(parts -> parts[0], Collectors.toList()),
-            Collectors.mapping(parts -> parts[1], Collectors.toList()),
-            List::of));
-
+  public Long part2(LocationLists lists) {
     // Keep the first list as is, and calculate a frequency map for the second one
-    final List<Long> firstList = lists.getFirst();
-    final Map<Long, Long> frequencyMap = lists.getLast().stream()
+    final List<Long> firstList = Arrays.stream(lists.first()).boxed().toList();
+    final Map<Long, Long> frequencyMap = Arrays.stream(lists.second())
+        .boxed()
         .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
 
     // Calculate similarity scores and return their sum
@@ -55,10 +77,12 @@ public class Day1 implements Day<Long> {
         .orElse(0L);
   }
 
-  private Stream<long[]> parseLines(final String input) {
-    return Util.lines(input)
-        .map(line -> line.split("\\s+"))
-        .map(parts -> new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) });
-  }
+  /**
+   * The two lists of location ids
+   *
+   * @param first  the first list
+   * @param second the second list
+   */
+  record LocationLists(long[] first, long[] second) { }
 
 }
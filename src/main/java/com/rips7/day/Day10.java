@@ -1,15 +1,10 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.CharGrid;
+import com.rips7.util.Coords;
+import com.rips7.util.Coords.Neighbours;
 import com.rips7.util.Util.Offset;
-import com.rips7.util.Util.Position;
-
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Queue;
-import java.util.Set;
-import java.util.Stack;
+import com.rips7.util.collections.VisitedSet;
 
 public class Day10 implements Day<Long> {
 
@@ -28,9 +23,11 @@ public class Day10 implements Day<Long> {
   /**
    * Models the Trail Map
    *
-   * @param heights the 2D array of heights
+   * @param heights the heights, by the dense index of their cell (see {@link Coords})
+   * @param rows    the number of rows
+   * @param cols    the number of columns
    */
-  private record TrailMap(int[][] heights) {
+  private record TrailMap(int[] heights, int rows, int cols) {
 
     /**
      * Parses the given input into a {@link TrailMap}
@@ -39,24 +36,12 @@ public class Day10 implements Day<Long> {
      * @return the parsed {@link TrailMap}
      */
     private static TrailMap parse(final String input) {
-      final int[][] heights = Util.lines(input)
-        .map(line -> line.chars()
-          .map(c -> c - '0')
-          .toArray())
-        .toArray(int[][]::new);
-      return new TrailMap(heights);
-    }
-
-    /**
-     * Retrieves the height at a given {@link Position}, or {@code -1} if the position is outside the map
-     *
-     * @param pos the position
-     * @return the height
-     */
-    private int get(final Position pos) {
-      return Util.isWithinGrid(pos, heights.length, heights[0].length) ?
-        heights[pos.x()][pos.y()] :
-        -1;
+      final CharGrid grid = CharGrid.parse(input);
+      final int[] heights = new int[grid.size()];
+      for (int i = 0; i < heights.length; i++) {
+        heights[i] = grid.getAt(i) - '0';
+      }
+      return new TrailMap(heights, grid.rows(), grid.cols());
     }
 
     /**
@@ -66,32 +51,31 @@ public class Day10 implements Day<Long> {
      */
     private int findHikingTrailsScore() {
       int score = 0;
-      for (int r = 0; r < heights.length; r++) {
-        for (int c = 0; c < heights[r].length; c++) {
-          // Skip non-0-heights
-          if (heights[r][c] != 0) {
-            continue;
+      final int[] frontier = new int[heights.length];
+      final VisitedSet closed = new VisitedSet(heights.length);
+      final Neighbours neighbors = new Neighbours(Offset.getOrthogonal(), rows, cols);
+      for (int start = 0; start < heights.length; start++) {
+        // Skip non-0-heights
+        if (heights[start] != 0) {
+          continue;
+        }
+        // BFS implementation, closing the cells as they are added so that each cell is queued once
+        closed.clear();
+        int head = 0;
+        int tail = 0;
+        frontier[tail++] = start;
+        closed.add(start);
+        while (head < tail) {
+          final int current = frontier[head++];
+          final int currentHeight = heights[current];
+          if (currentHeight == 9) {
+            score++;
           }
-          // BFS implementation
-          final Queue<Position> frontier = new ArrayDeque<>();
-          final Set<Position> closed = new HashSet<>();
-          frontier.add(Position.of(r, c));
-          while (!frontier.isEmpty()) {
-            final Position currentPos = frontier.poll();
-            final int currentHeight = this.get(currentPos);
-            if (closed.contains(currentPos)) {
-              continue;
+          for (neighbors.of(current); neighbors.hasNext(); ) {
+            final int neighbor = neighbors.next();
+            if (heights[neighbor] == currentHeight + 1 && closed.add(neighbor)) {
+              frontier[tail++] = neighbor;
             }
-            if (currentHeight == 9) {
-              score++;
-            }
-            List.of(Offset.UP, Offset.RIGHT, Offset.DOWN, Offset.LEFT).forEach(offset -> {
-              final Position neighbor = currentPos.apply(offset);
-              if (this.get(neighbor) == currentHeight + 1) {
-                frontier.add(neighbor);
-              }
-            });
-            closed.add(currentPos);
           }
         }
       }
@@ -105,27 +89,29 @@ public class Day10 implements Day<Long> {
      */
     private int findHikingTrailsRating() {
       int ratings = 0;
-      for (int r = 0; r < heights.length; r++) {
-        for (int c = 0; c < heights[r].length; c++) {
-          // Skip non-0-heights
-          if (heights[r][c] != 0) {
-            continue;
+      // Every cell on the stack is one higher than the one popped to push it, so the stack holds at most 4 cells per
+      // height
+      final int[] frontier = new int[4 * 10];
+      final Neighbours neighbors = new Neighbours(Offset.getOrthogonal(), rows, cols);
+      for (int start = 0; start < heights.length; start++) {
+        // Skip non-0-heights
+        if (heights[start] != 0) {
+          continue;
+        }
+        // DFS implementation (removed 'closedSet' because certain cells will be revisited, to find all paths)
+        int size = 0;
+        frontier[size++] = start;
+        while (size > 0) {
+          final int current = frontier[--size];
+          final int currentHeight = heights[current];
+          if (currentHeight == 9) {
+            ratings++;
           }
-          // DFS implementation (removed 'closedSet' because certain cells will be revisited, to find all paths)
-          final Stack<Position> frontier = new Stack<>();
-          frontier.add(Position.of(r, c));
-          while (!frontier.isEmpty()) {
-            final Position currentPos = frontier.pop();
-            final int currentHeight = this.get(currentPos);
-            if (currentHeight == 9) {
-              ratings++;
+          for (neighbors.of(current); neighbors.hasNext(); ) {
+            final int neighbor = neighbors.next();
+            if (heights[neighbor] == currentHeight + 1) {
+              frontier[size++] = neighbor;
             }
-            List.of(Offset.UP, Offset.RIGHT, Offset.DOWN, Offset.LEFT).forEach(offset -> {
-              final Position neighbor = currentPos.apply(offset);
-              if (this.get(neighbor) == currentHeight + 1) {
-                frontier.add(neighbor);
-              }
-            });
           }
         }
       }
@@ -1,6 +1,7 @@
 package com.rips7.day;
 
-import com.rips7.util.maths.Combinatorics.Pair;
+import com.rips7.util.collections.LongLongMap;
+import com.rips7.util.metrics.CacheMetrics;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -26,37 +27,45 @@ public class Day11 implements Day<Long> {
    * @return the solution
    */
   private long solve(final String input, final int steps) {
-    return Arrays.stream(input.split("\\s+"))
+    final CacheMetrics metrics = new CacheMetrics("day11.cache");
+    final long stones = Arrays.stream(input.split("\\s+"))
       .map(Long::parseLong)
-      .map(stone -> count(stone, steps))
+      .map(stone -> count(stone, steps, metrics))
       .reduce(Long::sum)
       .orElseThrow();
+    metrics.report();
+    return stones;
   }
 
   /**
    * Counts how many stones the given {@code stone} will generate after {@code steps} number of steps
    *
-   * @param stone the initial stone
-   * @param steps the number of steps
+   * @param stone   the initial stone
+   * @param steps   the number of steps
+   * @param metrics the counts of the cache hits and misses
    * @return the number of stones that will be generated
    */
-  private long count(final long stone, final int steps) {
-    return count(stone, steps, new HashMap<>());
+  private long count(final long stone, final int steps, final CacheMetrics metrics) {
+    return count(stone, steps, new StoneCache(), metrics);
   }
 
   /**
    * Main implementation of stone generation logic using a cache for memoization
    *
-   * @param stone the initial stone
-   * @param steps the number of steps
+   * @param stone   the initial stone
+   * @param steps   the number of steps
+   * @param cache   the cache of the counts
+   * @param metrics the counts of the cache hits and misses
    * @return the number of stones that will be generated
    */
-  private long count(final long stone, final int steps, final Map<Pair<Long, Integer>, Long> cache) {
-    // If we have cached the stone-steps combination, return the result from the cache
-    final Pair<Long, Integer> key = Pair.of(stone, steps);
-    if (cache.containsKey(key)) {
-      return cache.get(key);
+  private long count(final long stone, final int steps, final StoneCache cache, final CacheMetrics metrics) {
+    // If we have cached the stone-steps combination, return the result from the cache (counts are never 0)
+    final long cached = cache.get(stone, steps);
+    if (cached != 0) {
+      metrics.hit();
+      return cached;
     }
+    metrics.miss();
 
     // Base case: If no more steps are left, we return a single stone (the initial one)
     if (steps == 0) {
@@ -66,7 +75,7 @@ public class Day11 implements Day<Long> {
     // Rule 1: If the stone is engraved with the number 0, it is replaced by a stone engraved with the number 1
     if (stone == 0) {
       // Recursively calculate new stones with one less step, and cache the result
-      return cacheResult(key, count(1L, steps - 1, cache), cache);
+      return cache.put(stone, steps, count(1L, steps - 1, cache, metrics));
     }
 
     // Rule 2: If the stone is engraved with a number that has an even number of digits, it is replaced by two stones
@@ -77,24 +86,61 @@ public class Day11 implements Day<Long> {
       final long leftStone = Long.parseLong(leftStoneStr);
       final long rightStone = Long.parseLong(rightStoneStr);
       // Recursively calculate new stones for each case with one less step, and cache the result
-      return cacheResult(key, count(leftStone, steps - 1, cache) + count(rightStone, steps - 1, cache), cache);
+      final long stones = count(leftStone, steps - 1, cache, metrics) + count(rightStone, steps - 1, cache, metrics);
+      return cache.put(stone, steps, stones);
     }
 
     // Rule 3: If none of the other rules apply, the stone is replaced by a new stone; the old stone's number multiplied by 2024 is engraved on the new stone.
     // Recursively calculate new stones with one less step, and cache the result
-    return cacheResult(key, count(stone * 2024, steps - 1, cache), cache);
+    return cache.put(stone, steps, count(stone * 2024, steps - 1, cache, metrics));
   }
 
   /**
-   * Adds a new cache entry and returns the result
-   *
-   * @param key   the key for the new cache entry
-   * @param value the value for the new cache entry
-   * @param cache the cache to add the entry to
-   * @return the value from the entry that was cached
+   * The cache of the counts, by stone and number of steps. A stone below 2^56 with fewer than 2^7 steps, which covers
+   * the stones of the puzzle, is packed into a single key of one map. Any other combination would not fit the key, and
+   * wrap onto the key of another, so it falls back to a map of the stones of each number of steps.
    */
-  private long cacheResult(final Pair<Long, Integer> key, final long value, final Map<Pair<Long, Integer>, Long> cache) {
-    cache.put(key, value);
-    return value;
+  private static final class StoneCache {
+
+    private static final int STEP_BITS = 7;
+
+    private final LongLongMap packed = new LongLongMap();
+    private final Map<Integer, LongLongMap> bySteps = new HashMap<>();
+
+    /**
+     * Gets the count of a stone-steps combination
+     *
+     * @param stone the stone
+     * @param steps the number of steps
+     * @return the count, or 0 if it is not cached
+     */
+    private long get(final long stone, final int steps) {
+      if (fits(stone, steps)) {
+        return packed.get(stone << STEP_BITS | steps, 0);
+      }
+      final LongLongMap stones = bySteps.get(steps);
+      return stones == null ? 0 : stones.get(stone, 0);
+    }
+
+    /**
+     * Caches the count of a stone-steps combination
+     *
+     * @param stone the stone
+     * @param steps the number of steps
+     * @param count the count
+     * @return the count
+     */
+    private long put(final long stone, final int steps, final long count) {
+      if (fits(stone, steps)) {
+        packed.put(stone << STEP_BITS | steps, count);
+      } else {
+        bySteps.computeIfAbsent(steps, s -> new LongLongMap()).put(stone, count);
+      }
+      return count;
+    }
+
+    private static boolean fits(final long stone, final int steps) {
+      return stone >>> (Long.SIZE - STEP_BITS) == 0 && steps >>> STEP_BITS == 0;
+    }
   }
 }
@@ -1,22 +1,20 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.CharGrid;
+import com.rips7.util.Coords;
+import com.rips7.util.Coords.Neighbours;
 import com.rips7.util.Util.Offset;
-import com.rips7.util.Util.Position;
+import com.rips7.util.collections.LongSet;
+import com.rips7.util.collections.VisitedSet;
 import com.rips7.util.maths.Combinatorics.Pair;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class Day12 implements Day<Long> {
 
-  private static final List<Offset> OFFSETS = List.of(Offset.UP, Offset.RIGHT, Offset.DOWN, Offset.LEFT);
-
   @Override
   public Long part1(String input) {
     return Garden.parse(input).parseRegions().stream()
@@ -38,7 +36,7 @@ public class Day12 implements Day<Long> {
    *
    * @param crops the crops in the garden
    */
-  private record Garden(Character[][] crops) {
+  private record Garden(CharGrid crops) {
 
     /**
      * Parses the given input into a {@link Garden}
@@ -47,70 +45,49 @@ public class Day12 implements Day<Long> {
      * @return the parsed {@link Garden}
      */
     private static Garden parse(final String input) {
-      final Character[][] crops = Util.lines(input)
-        .map(line -> line.chars()
-          .mapToObj(c -> (char) c)
-          .toArray(Character[]::new))
-        .toArray(Character[][]::new);
-      return new Garden(crops);
-    }
-
-    /**
-     * Retrieves the crop at a given {@link Position}, or {@code null} if the position is outside the garden
-     *
-     * @param pos the position
-     * @return the height
-     */
-    private Character get(final Position pos) {
-      return Util.isWithinGrid(pos, crops) ? crops[pos.x()][pos.y()] : null;
+      return new Garden(CharGrid.parse(input));
     }
 
     /**
      * Implements a flood fill algorithm to parse the {@link Region}s
      *
-     * @return a set of {@link Region}s
+     * @return a list of {@link Region}s
      */
-    private Set<Region> parseRegions() {
-      final Set<Region> regions = new HashSet<>();
+    private List<Region> parseRegions() {
+      final List<Region> regions = new ArrayList<>();
+      // Whether each cell (by dense index) already belongs to a region
+      final VisitedSet assigned = new VisitedSet(crops.size());
+
+      // The frontier for flood fill, and the neighbours of its cells, by dense index
+      final int[] frontier = new int[crops.size()];
+      final Neighbours neighbours = new Neighbours(Offset.getOrthogonal(), crops.rows(), crops.cols());
 
       // Loop through the crops
-      Util.loop2D(crops, (crop, r, c) -> {
-        final Position currentPos = Position.of(r, c);
-        // The current region
-        final Set<Position> region = new HashSet<>();
-        region.add(currentPos);
-        // The frontier for flood fill
-        final Queue<Position> frontier = new ArrayDeque<>();
-        frontier.add(currentPos);
-        // The closed set for flood fill
-        final Set<Position> closedSet = new HashSet<>();
-        while(!frontier.isEmpty()) {
-          final Position current = frontier.poll();
-          // If the closed set contains the current position, skip
-          if (closedSet.contains(current)) {
-            continue;
-          }
-          // Get all the next positions based on the offsets
-          OFFSETS.forEach(offset -> {
-            final Position next = current.apply(offset);
-            // If the next position is outside the grid, skip
-            if (!Util.isWithinGrid(next, crops)) {
-              return;
-            }
-            // If the crop in the next position is not the same as the crop in this region
-            if (get(next) != crop) {
-              return;
-            }
-            // If the region contains the next position, skip
-            if (region.contains(next)) {
-              return;
+      crops.forEach((crop, r, c) -> {
+        // If the crop has been filled from another cell of its region, skip
+        if (!assigned.add(crops.index(r, c))) {
+          return;
+        }
+        // The current region, as packed positions
+        final LongSet region = new LongSet();
+        region.add(Coords.pack(r, c));
+        int head = 0;
+        int tail = 0;
+        frontier[tail++] = crops.index(r, c);
+        while (head < tail) {
+          final int current = frontier[head++];
+          // Get all the next cells within the garden, based on the offsets
+          for (neighbours.of(current); neighbours.hasNext(); ) {
+            final int next = neighbours.next();
+            // If the crop in the next cell is not the same as the crop in this region, or the cell has already been
+            // added to the region, skip
+            if (crops.getAt(next) != crop || !assigned.add(next)) {
+              continue;
             }
             // Add the next to the region and the frontier
-            region.add(next);
-            frontier.add(next);
-          });
-          // Add the current to the closed set to not process it again
-          closedSet.add(current);
+            region.add(Coords.pack(Coords.rowOf(next, crops.cols()), Coords.colOf(next, crops.cols())));
+            frontier[tail++] = next;
+          }
         }
         // Create the region with the name of the current crop
         regions.add(new Region(crop, region));
@@ -124,9 +101,9 @@ public class Day12 implements Day<Long> {
    * Models a region
    *
    * @param name  the name of the region
-   * @param cells the set of all the cells within the region
+   * @param cells the set of all the cells within the region, as packed positions (see {@link Coords})
    */
-  private record Region(char name, Set<Position> cells) {
+  private record Region(char name, LongSet cells) {
 
     /**
      * Gets the area of the region
@@ -146,13 +123,18 @@ public class Day12 implements Day<Long> {
     private long perimeter() {
       // Each cell contributes maximum of 4 edges to the perimeter, but we take away a number of edges equal to the
       // adjacent cells within the region
-      return cells.stream()
-        .map(cell -> 4L - OFFSETS.stream()
-          .map(cell::apply)
-          .filter(cells::contains)
-          .count())
-        .reduce(Long::sum)
-        .orElseThrow();
+      long perimeter = 0;
+      for (final long cell : cells.toArray()) {
+        perimeter += 4;
+        final int row = Coords.row(cell);
+        final int col = Coords.col(cell);
+        for (int offset = 0; offset < Offset.ORTHOGONAL; offset++) {
+          if (cells.contains(Coords.pack(row + Offset.drOf(offset), col + Offset.dcOf(offset)))) {
+            perimeter--;
+          }
+        }
+      }
+      return perimeter;
     }
 
     // Converts a pair of coordinates to a list of pairs of coordinates.
@@ -173,7 +155,7 @@ public class Day12 implements Day<Long> {
     private long sides() {
       return cells.stream()
         // Convert each cell to its center coordinates
-        .map(pos -> Pair.of((double) pos.x(), (double) pos.y()))
+        .mapToObj(pos -> Pair.of((double) Coords.row(pos), (double) Coords.col(pos)))
         // Get all its corners
         .map(CONVERT)
         .flatMap(List::stream)
@@ -182,10 +164,8 @@ public class Day12 implements Day<Long> {
         // Convert the corners back to the surrounding cells centre
         .map(CONVERT)
         .map(centres -> centres.stream()
-          // Convert the centre of each cell back to a position
-          .map(center -> Position.of(center.left().intValue(), center.right().intValue()))
-          // Check if the cell is within the region
-          .map(cells::contains)
+          // Convert the centre of each cell back to a position, and check if the cell is within the region
+          .map(center -> cells.contains(Coords.pack(center.left().intValue(), center.right().intValue())))
           .toList())
         .map(cellsInRegion -> Pair.of(
           // Count how many cells are within the region
@@ -1,11 +1,9 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.io.TokenScanner;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class Day13 implements Day<Long> {
 
@@ -33,14 +31,18 @@ public class Day13 implements Day<Long> {
    * @return a list of {@link Machine}s
    */
   private List<Machine> parseMachines(final String input, final long offset) {
-    final List<String> lines = Util.lines(input).toList();
+    final TokenScanner scanner = TokenScanner.of(input);
     final List<Machine> machines = new ArrayList<>();
-    for (int i = 0; i < lines.size(); i += 4) {
-      final Machine machine = new Machine(
-        Button.parse(lines.get(i)),
-        Button.parse(lines.get(i + 1)),
-        Prize.parse(lines.get(i + 2), offset));
-      machines.add(machine);
+    // Each machine is three lines, and machines are separated by blank lines
+    while (scanner.nextLine()) {
+      if (scanner.lineLength() == 0) {
+        continue;
+      }
+      final Button buttonA = Button.parse(scanner);
+      scanner.nextLine();
+      final Button buttonB = Button.parse(scanner);
+      scanner.nextLine();
+      machines.add(new Machine(buttonA, buttonB, Prize.parse(scanner, offset)));
     }
     return machines;
   }
@@ -120,22 +122,21 @@ public class Day13 implements Day<Long> {
    */
   private record Button(char name, long offX, long offY, long cost) {
 
-    private static final Pattern PATTERN = Pattern.compile("Button ([AB]): X\\+(\\d+), Y\\+(\\d+)");
+    private static final String PREFIX = "Button ";
 
     /**
-     * Parses the given input into a {@link Button}
+     * Parses the current line of the scanner, of the form {@code Button A: X+94, Y+34}, into a {@link Button}
      *
-     * @param input the input
+     * @param scanner the scanner
      * @return the parsed {@link Button}
      */
-    private static Button parse(final String input) {
-      final Matcher matcher = PATTERN.matcher(input);
-      if (!matcher.matches()) {
-        throw new RuntimeException("Cannot parse %s".formatted(input));
+    private static Button parse(final TokenScanner scanner) {
+      final char name = scanner.lineLength() > PREFIX.length() ? scanner.charAt(PREFIX.length()) : '?';
+      if (name != 'A' && name != 'B') {
+        throw new RuntimeException("Cannot parse button at %s".formatted(scanner.lineStart()));
       }
-      final char name = matcher.group(1).charAt(0);
-      final long offX = Integer.parseInt(matcher.group(2));
-      final long offY = Integer.parseInt(matcher.group(3));
+      final long offX = scanner.nextLong();
+      final long offY = scanner.nextLong();
       final long cost = name == 'A' ? 3 : 1;
       return new Button(name, offX, offY, cost);
     }
@@ -149,21 +150,16 @@ public class Day13 implements Day<Long> {
    */
   private record Prize(long x, long y) {
 
-    private static final Pattern PATTERN = Pattern.compile("Prize: X=(\\d+), Y=(\\d+)");
-
     /**
-     * Parses the given input into a {@link Prize}
+     * Parses the current line of the scanner, of the form {@code Prize: X=8400, Y=5400}, into a {@link Prize}
      *
-     * @param input the input
+     * @param scanner the scanner
+     * @param offset  the offset for the prize
      * @return the parsed {@link Prize}
      */
-    private static Prize parse(final String input, final long offset) {
-      final Matcher matcher = PATTERN.matcher(input);
-      if (!matcher.matches()) {
-        throw new RuntimeException("Cannot parse %s".formatted(input));
-      }
-      final long x = Long.parseLong(matcher.group(1)) + offset;
-      final long y = Long.parseLong(matcher.group(2)) + offset;
+    private static Prize parse(final TokenScanner scanner, final long offset) {
+      final long x = scanner.nextLong() + offset;
+      final long y = scanner.nextLong() + offset;
       return new Prize(x, y);
     }
   }
@@ -1,14 +1,16 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.Coords;
 import com.rips7.util.Util.Position;
+import com.rips7.util.collections.LongSet;
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.io.TokenScanner;
 import com.rips7.util.maths.Combinatorics.Triplet;
 import com.rips7.util.maths.Maths.Vector2D;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -21,10 +23,8 @@ public class Day14 implements Day<Long> {
 
   @Override
   public Long part1(String input) {
-    final Set<Position> positions = Util.lines(input)
-      .map(Robot::parse)
-      .map(robot -> robot.simulate(100))
-      .collect(Collectors.toSet());
+    final LongSet positions = new LongSet();
+    Robot.parseAll(input).forEach(robot -> positions.add(robot.simulate(100).pack()));
     return safetyFactor(positions);
   }
 
@@ -32,13 +32,15 @@ public class Day14 implements Day<Long> {
   public Long part2(String input) {
     // The safety factor is an indication of entropy. If a Christmas Tree appears, it minimises the entropy of the
     // robots position on the grid. We look for the configuration that produces the minimum safety factor.
-    final Triplet<Long, Set<Position>, Integer> christmasTreeConfiguration = IntStream.range(1, WIDTH * HEIGHT)
+    // The parallel stream runs on other threads, so the cancellation token is captured here
+    final CancellationToken token = CancellationToken.current();
+    final List<Robot> robots = Robot.parseAll(input);
+    final Triplet<Long, LongSet, Integer> christmasTreeConfiguration = IntStream.range(1, WIDTH * HEIGHT)
       .parallel()
       .mapToObj(i -> {
-        final Set<Position> positions = Util.lines(input)
-          .map(Robot::parse)
-          .map(robot -> robot.simulate(i))
-          .collect(Collectors.toSet());
+        token.checkpoint();
+        final LongSet positions = new LongSet(robots.size());
+        robots.forEach(robot -> positions.add(robot.simulate(i).pack()));
         return Triplet.of(safetyFactor(positions), positions, i);
       })
       .min(Comparator.comparingLong(Triplet::first))
@@ -52,7 +54,7 @@ public class Day14 implements Day<Long> {
     return (long) christmasTreeConfiguration.third();
   }
 
-  private long safetyFactor(final Set<Position> positions) {
+  private long safetyFactor(final LongSet positions) {
     final Quadrant topLeft = new Quadrant(0, 0, WIDTH / 2, HEIGHT / 2);
     final Quadrant topRight = new Quadrant(WIDTH / 2 + 1, 0, WIDTH / 2, HEIGHT / 2);
     final Quadrant bottomLeft = new Quadrant(0, HEIGHT / 2 + 1, WIDTH / 2, HEIGHT / 2);
@@ -63,7 +65,8 @@ public class Day14 implements Day<Long> {
     long inBottomLeft = 0;
     long inBottomRight = 0;
 
-    for (final Position pos : positions) {
+    for (final long packed : positions.toArray()) {
+      final Position pos = Position.of(packed);
       if (topLeft.contains(pos)) {
         inTopLeft++;
       } else if (topRight.contains(pos)) {
@@ -78,10 +81,10 @@ public class Day14 implements Day<Long> {
     return inTopLeft * inTopRight * inBottomLeft * inBottomRight;
   }
 
-  private void printAnswer(final Set<Position> positions) {
+  private void printAnswer(final LongSet positions) {
     System.out.println(
       IntStream.range(0, HEIGHT).mapToObj(r ->
-        IntStream.range(0, WIDTH).mapToObj(c -> positions.contains(Position.of(c, r)) ? "#" : ".")
+        IntStream.range(0, WIDTH).mapToObj(c -> positions.contains(Coords.pack(c, r)) ? "#" : ".")
           .collect(Collectors.joining()))
         .collect(Collectors.joining("\n")));
   }
@@ -115,25 +118,26 @@ public class Day14 implements Day<Long> {
    * @param vel the {@link Vector2D} that represents the velocity
    */
   private record Robot(Position pos, Vector2D<Integer> vel) {
-    // The pattern for each input line
-    private static final Pattern PATTERN = Pattern.compile("p=(-?\\d+),(-?\\d+) v=(-?\\d+),(-?\\d+)");
-
     /**
-     * Parses the given input into a {@link Robot}
+     * Parses the given input into {@link Robot}s, one per line of the form {@code p=0,4 v=3,-3}
      *
      * @param input the input
-     * @return the parsed {@link Robot}
+     * @return the parsed {@link Robot}s
      */
-    private static Robot parse(final String input) {
-      final Matcher matcher = PATTERN.matcher(input);
-      if (!matcher.matches()) {
-        throw new RuntimeException("Cannot parse robot from input %s".formatted(input));
+    private static List<Robot> parseAll(final String input) {
+      final TokenScanner scanner = TokenScanner.of(input);
+      final List<Robot> robots = new ArrayList<>();
+      while (scanner.nextLine()) {
+        if (!scanner.hasNextNumber()) {
+          continue;
+        }
+        final int posX = scanner.nextInt();
+        final int posY = scanner.nextInt();
+        final int velX = scanner.nextInt();
+        final int velY = scanner.nextInt();
+        robots.add(new Robot(Position.of(posX, posY), Vector2D.of(velX, velY)));
       }
-      final int posX = Integer.parseInt(matcher.group(1));
-      final int posY = Integer.parseInt(matcher.group(2));
-      final int velX = Integer.parseInt(matcher.group(3));
-      final int velY = Integer.parseInt(matcher.group(4));
-      return new Robot(Position.of(posX, posY), Vector2D.of(velX, velY));
+      return robots;
     }
 
     /**
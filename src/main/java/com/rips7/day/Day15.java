@@ -1,8 +1,10 @@
 package com.rips7.day;
 
+import com.rips7.util.IndexedCharGrid;
 import com.rips7.util.Util;
 import com.rips7.util.Util.Direction;
 import com.rips7.util.Util.Position;
+import com.rips7.util.collections.VisitedSet;
 import com.rips7.util.maths.Combinatorics.Pair;
 
 import java.util.ArrayList;
@@ -12,8 +14,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 public class Day15 implements Day<Long> {
@@ -68,10 +68,10 @@ public class Day15 implements Day<Long> {
    * Abstract model of the Warehouse
    */
   private static abstract class Warehouse {
-    protected final Character[][] grid;
+    protected final IndexedCharGrid grid;
     protected final Robot robot;
 
-    protected Warehouse(final Character[][] grid, final Robot robot) {
+    protected Warehouse(final IndexedCharGrid grid, final Robot robot) {
       this.grid = grid;
       this.robot = robot;
     }
@@ -83,7 +83,7 @@ public class Day15 implements Day<Long> {
      * @return the element at that position, or {@code X} if the position is not within the grid
      */
     protected char get(final Position pos) {
-      return Util.isWithinGrid(pos, grid) ? grid[pos.x()][pos.y()] : 'X';
+      return grid.get(pos);
     }
 
     /**
@@ -92,9 +92,9 @@ public class Day15 implements Day<Long> {
      * @param move the {@link Move} to make
      */
     protected void moveRobot(final Move move) {
-      grid[robot.pos.x()][robot.pos.y()] = '.';
+      grid.set(robot.pos, '.');
       robot.move(robot.nextPosition(move));
-      grid[robot.pos.x()][robot.pos.y()] = '@';
+      grid.set(robot.pos, '@');
     }
 
     /**
@@ -105,26 +105,23 @@ public class Day15 implements Day<Long> {
     protected abstract void makeMove(final Move move);
 
     /**
-     * Determines if the given character represents a box
+     * Gets the character whose position is the position of a box, for the GPS
      *
-     * @param c the character to check
-     * @return true if it is a box, false otherwise
+     * @return the character of the boxes
      */
-    protected abstract boolean isBox(final Character c);
+    protected abstract char box();
 
     /**
-     * Calculates the boxes GPS
+     * Calculates the boxes GPS, from the cells of the boxes in the grid's index
      *
      * @return the boxes GPS
      */
     protected long getBoxesGps() {
-      final AtomicLong boxesGps = new AtomicLong();
-      Util.loop2D(grid, (e, i, j) -> {
-        if (isBox(e)) {
-          boxesGps.addAndGet(100L * i + j);
-        }
-      });
-      return boxesGps.get();
+      long boxesGps = 0;
+      for (final Position box : grid.findAll(box())) {
+        boxesGps += 100L * box.x() + box.y();
+      }
+      return boxesGps;
     }
   }
 
@@ -141,22 +138,12 @@ public class Day15 implements Day<Long> {
      */
     private static SmallWarehouse parse(final String input) {
       // Parse the grid
-      final Character[][] grid = Util.lines(input)
-        .map(line -> line.chars()
-          .mapToObj(c -> (char) c)
-          .toArray(Character[]::new))
-        .toArray(Character[][]::new);
-      final AtomicReference<Position> robotPosition = new AtomicReference<>();
+      final IndexedCharGrid grid = IndexedCharGrid.parse(input, 'X');
       // Find the robot's position
-      Util.loop2D(grid, (e, r, c) -> {
-        if (e == '@') {
-          robotPosition.set(Position.of(r, c));
-        }
-      });
-      return new SmallWarehouse(grid, new Robot(robotPosition.get()));
+      return new SmallWarehouse(grid, new Robot(grid.find('@')));
     }
 
-    private SmallWarehouse(final Character[][] grid, final Robot robot) {
+    private SmallWarehouse(final IndexedCharGrid grid, final Robot robot) {
       super(grid, robot);
     }
 
@@ -170,8 +157,8 @@ public class Day15 implements Day<Long> {
     }
 
     @Override
-    protected boolean isBox(final Character c) {
-      return c == 'O';
+    protected char box() {
+      return 'O';
     }
 
     /**
@@ -195,8 +182,8 @@ public class Day15 implements Day<Long> {
       if (get(positionToCheck) == '.') {
         for (final Position objectToMove : objectsToMove.reversed()) {
           final Position nextPosition = objectToMove.apply(move.dir.offset());
-          grid[nextPosition.x()][nextPosition.y()] = 'O';
-          grid[objectToMove.x()][objectToMove.y()] = '.';
+          grid.set(nextPosition, 'O');
+          grid.set(objectToMove, '.');
         }
 
         // Move the robot at the end, if the move is performed
@@ -226,26 +213,23 @@ public class Day15 implements Day<Long> {
      * @return the {@link BigWarehouse}
      */
     private static BigWarehouse parse(final String input) {
+      // Apply enlargement rules
+      final StringBuilder enlarged = new StringBuilder(2 * input.length());
+      input.chars().forEach(c -> enlarged.append(c == '\n' ? "\n" : ENLARGEMENT_RULES.get(String.valueOf((char) c))));
       // Parse the grid
-      final Character[][] grid = Util.lines(input)
-        .map(line -> line.chars()
-          .mapToObj(c -> String.valueOf((char) c))
-          // Apply enlargement rules
-          .flatMap(s -> ENLARGEMENT_RULES.get(s).chars().mapToObj(c -> (char) c))
-          .toArray(Character[]::new))
-        .toArray(Character[][]::new);
+      final IndexedCharGrid grid = IndexedCharGrid.parse(enlarged.toString(), 'X');
       // Find the robot's position
-      final AtomicReference<Position> robotPosition = new AtomicReference<>();
-      Util.loop2D(grid, (e, r, c) -> {
-        if (e == '@') {
-          robotPosition.set(Position.of(r, c));
-        }
-      });
-      return new BigWarehouse(grid, new Robot(robotPosition.get()));
+      return new BigWarehouse(grid, new Robot(grid.find('@')));
     }
 
-    private BigWarehouse(final Character[][] grid, final Robot robot) {
+    /**
+     * The closed cells of the DFS of each push, reused across the pushes
+     */
+    private final VisitedSet closedSet;
+
+    private BigWarehouse(final IndexedCharGrid grid, final Robot robot) {
       super(grid, robot);
+      this.closedSet = new VisitedSet(grid.size());
     }
 
     @Override
@@ -258,8 +242,8 @@ public class Day15 implements Day<Long> {
     }
 
     @Override
-    protected boolean isBox(final Character c) {
-      return c == '[';
+    protected char box() {
+      return '[';
     }
 
     /**
@@ -273,7 +257,7 @@ public class Day15 implements Day<Long> {
 
       // DFS implementation
       final Stack<Position> frontier = new Stack<>();
-      final Set<Position> closedSet = new HashSet<>();
+      closedSet.clear();
       final Position nextPos = robot.nextPosition(move);
       frontier.add(nextPos);
 
@@ -291,7 +275,7 @@ public class Day15 implements Day<Long> {
 
       while(!frontier.isEmpty()) {
         final Position current = frontier.pop();
-        if (closedSet.contains(current)) {
+        if (closedSet.contains(grid.index(current))) {
           continue;
         }
         final Position next = current.apply(move.dir.offset());
@@ -322,7 +306,7 @@ public class Day15 implements Day<Long> {
           frontier.add(next);
           objectsToMove.add(Pair.of(get(next), next));
         }
-        closedSet.add(current);
+        closedSet.add(grid.index(current));
       }
 
       // Sort the objects, so that the ones further away from the robot are moved first
@@ -339,8 +323,8 @@ public class Day15 implements Day<Long> {
       // Move the boxes in the way they are sorted
       for (final Pair<Character, Position> objectToMove : objectsToMoveSorted) {
         final Position nextPosition = objectToMove.right().apply(move.dir.offset());
-        grid[nextPosition.x()][nextPosition.y()] = objectToMove.left();
-        grid[objectToMove.right().x()][objectToMove.right().y()] = '.';
+        grid.set(nextPosition, objectToMove.left());
+        grid.set(objectToMove.right(), '.');
       }
 
       // Move the robot at the end, if the move is performed
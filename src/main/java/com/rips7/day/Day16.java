@@ -1,8 +1,7 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.IndexedCharGrid;
 import com.rips7.util.Util.Direction;
-import com.rips7.util.Util.Grid;
 import com.rips7.util.Util.Position;
 import com.rips7.util.algorithms.pathfinding.Dijkstra;
 import com.rips7.util.maths.Combinatorics.Pair;
@@ -18,12 +17,16 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-public class Day16 implements Day<Long> {
+public class Day16 implements ParsedDay<IndexedCharGrid, Long> {
 
   @Override
-  public Long part1(String input) {
-    // Parse grid, starting position and ending position
-    final Grid<Character> grid = Grid.of(Util.grid(input), 'X');
+  public IndexedCharGrid parse(String input) {
+    return IndexedCharGrid.parse(input, 'X');
+  }
+
+  @Override
+  public Long part1(IndexedCharGrid grid) {
+    // Find starting position and ending position
     final Position startPos = grid.find('S');
     final Position endPos = grid.find('E');
 
@@ -44,9 +47,8 @@ public class Day16 implements Day<Long> {
   }
 
   @Override
-  public Long part2(String input) {
-    // Parse grid, starting position and ending position
-    final Grid<Character> grid = Grid.of(Util.grid(input), 'X');
+  public Long part2(IndexedCharGrid grid) {
+    // Find starting position and ending position
     final Position startPos = grid.find('S');
     final Position endPos = grid.find('E');
 
@@ -126,15 +128,15 @@ public class Day16 implements Day<Long> {
    *
    * @param currPosDir the current {@link PositionAndDirection}
    * @param currCost   the current cost
-   * @param grid       the {@link Grid}
+   * @param grid       the {@link IndexedCharGrid}
    * @return a map of neighbors and costs
    */
   private Map<PositionAndDirection, Double> getNeighbors(final PositionAndDirection currPosDir, final Double currCost,
-      final Grid<Character> grid) {
+      final IndexedCharGrid grid) {
     final Position currentPos = currPosDir.pos;
     final Direction currentDir = currPosDir.dir;
     final Position nextPosition = currentPos.apply(currentDir.offset());
-    final Character nextCell = grid.get(nextPosition);
+    final char nextCell = grid.get(nextPosition);
 
     final Map<PositionAndDirection, Double> neighbors = new HashMap<>();
     if (nextCell != '#') {
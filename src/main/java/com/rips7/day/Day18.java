@@ -1,31 +1,27 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
-import com.rips7.util.Util.Grid;
+import com.rips7.util.CharGrid;
+import com.rips7.util.Coords.Neighbours;
 import com.rips7.util.Util.Offset;
 import com.rips7.util.Util.Position;
-import com.rips7.util.algorithms.pathfinding.BFS;
+import com.rips7.util.collections.VisitedSet;
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.io.TokenScanner;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
-public class Day18 implements Day<String> {
+public class Day18 implements ParsedDay<List<Position>, String> {
 
   private static final int DIM = 71;
-  private static final List<Offset> OFFSETS = List.of(Offset.UP, Offset.RIGHT, Offset.DOWN, Offset.LEFT);
 
   @Override
-  public String part1(String input) {
-    final List<Position> bytes = parseBytes(input);
-    return String.valueOf(getPathSize(bytes, 1024));
+  public String part1(List<Position> bytes) {
+    return String.valueOf(getPathSize(bytes, 1024, new VisitedSet(DIM * DIM)));
   }
 
   @Override
-  public String part2(String input) {
-    final List<Position> bytes = parseBytes(input);
+  public String part2(List<Position> bytes) {
     final Position blockingByte = findBlockingByte(bytes);
     return "%s,%s".formatted(blockingByte.y(), blockingByte.x());
   }
@@ -36,57 +32,78 @@ public class Day18 implements Day<String> {
    * @param input the input
    * @return a list of the bytes {@link Position}
    */
-  private List<Position> parseBytes(final String input) {
-    return Util.lines(input)
-      .map(l -> Arrays.stream(l.split(","))
-        .map(Integer::parseInt)
-        .toArray(Integer[]::new))
-      .map(pos -> Position.of(pos[1], pos[0]))
-      .toList();
+  @Override
+  public List<Position> parse(final String input) {
+    final TokenScanner scanner = TokenScanner.of(input);
+    final List<Position> bytes = new ArrayList<>();
+    while (scanner.nextLine()) {
+      if (!scanner.hasNextNumber()) {
+        continue;
+      }
+      // Each line is X,Y
+      final int x = scanner.nextInt();
+      final int y = scanner.nextInt();
+      bytes.add(Position.of(y, x));
+    }
+    return bytes;
   }
 
   /**
-   * Parses the memory space into a {@link Grid} for better handling, from the given bytes {@link Position}s, limited by
-   * the given limit
+   * Parses the memory space into a {@link CharGrid} for better handling, from the given bytes {@link Position}s,
+   * limited by the given limit
    *
    * @param allBytes the positions for all the bytes
    * @param limit    the limit
-   * @return a {@link Grid} of characters that represents the memory space
+   * @return a {@link CharGrid} that represents the memory space
    */
-  private Grid<Character> parseMemory(final List<Position> allBytes, final int limit) {
-    final Set<Position> bytes = allBytes.stream()
+  private CharGrid parseMemory(final List<Position> allBytes, final int limit) {
+    final CharGrid memory = CharGrid.filled(DIM, DIM, '.', '#');
+    allBytes.stream()
       .limit(limit)
-      .collect(Collectors.toSet());
-    final Character[][] memory = IntStream.range(0, DIM)
-      .mapToObj(c -> IntStream.range(0, DIM)
-        .mapToObj(r -> bytes.contains(Position.of(c, r)) ? '#' : '.')
-        .toArray(Character[]::new))
-      .toArray(Character[][]::new);
-    return Grid.of(memory, '#');
+      .forEach(pos -> memory.set(pos, '#'));
+    return memory;
   }
 
   /**
-   * Gets the path size using the BFS implementation
+   * Gets the path size using a BFS over the dense indices of the memory space, one level of the frontier at a time
    *
-   * @param bytes the list of bytes
-   * @param limit the limit
+   * @param bytes  the list of bytes
+   * @param limit  the limit
+   * @param closed the closed cells, which are cleared first, so that one instance serves every search
    * @return the path size from start to end, or -1 if no path exists
    */
-  private int getPathSize(final List<Position> bytes, final int limit) {
-    final Grid<Character> memory = parseMemory(bytes, limit);
-    try {
-      final List<Position> result = new BFS<Position>().run(
-        Position.of(0, 0),
-        Position.of(DIM - 1, DIM - 1),
-        current -> OFFSETS.stream()
-          .map(current::apply)
-          .filter(next -> memory.get(next.y(), next.x()) == '.')
-          .toList()
-      );
-      return result.size() - 1;
-    } catch (final Exception e) {
-      return -1;
+  private int getPathSize(final List<Position> bytes, final int limit, final VisitedSet closed) {
+    final CharGrid memory = parseMemory(bytes, limit);
+    final CancellationToken token = CancellationToken.current();
+    final int start = memory.index(0, 0);
+    final int end = memory.index(DIM - 1, DIM - 1);
+    final int[] frontier = new int[memory.size()];
+    final Neighbours neighbors = new Neighbours(Offset.getOrthogonal(), DIM, DIM);
+    closed.clear();
+    int head = 0;
+    int tail = 0;
+    frontier[tail++] = start;
+    closed.add(start);
+    int steps = 0;
+    while (head < tail) {
+      token.checkpoint();
+      // Expand the whole current level, so that the number of levels is the path size
+      final int levelEnd = tail;
+      while (head < levelEnd) {
+        final int current = frontier[head++];
+        if (current == end) {
+          return steps;
+        }
+        for (neighbors.of(current); neighbors.hasNext(); ) {
+          final int next = neighbors.next();
+          if (memory.getAt(next) == '.' && closed.add(next)) {
+            frontier[tail++] = next;
+          }
+        }
+      }
+      steps++;
     }
+    return -1;
   }
 
   /**
@@ -97,11 +114,13 @@ public class Day18 implements Day<String> {
    * @return the position of the byte that blocks the path to the exit
    */
   private Position findBlockingByte(final List<Position> bytes) {
+    // Every search of the binary search reuses the same closed cells
+    final VisitedSet closed = new VisitedSet(DIM * DIM);
     int low = 0;
     int high = bytes.size() - 1;
     while (low < high) {
       int limit = (low + high) / 2;
-      if (getPathSize(bytes, limit) != -1) {
+      if (getPathSize(bytes, limit, closed) != -1) {
         low = limit + 1;
       } else {
         high = limit;
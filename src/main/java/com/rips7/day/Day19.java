@@ -1,33 +1,38 @@
 package com.rips7.day;
 
 import com.rips7.util.maths.Combinatorics.Pair;
+import com.rips7.util.metrics.CacheMetrics;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class Day19 implements Day<Long> {
+public class Day19 implements ParsedDay<Pair<List<String>, List<String>>, Long> {
 
   @Override
-  public Long part1(String input) {
-    final Pair<List<String>, List<String>> towelsAndPatterns = parseTowelsAndPatterns(input);
+  public Long part1(Pair<List<String>, List<String>> towelsAndPatterns) {
     final List<String> towels = towelsAndPatterns.left();
     final List<String> patterns = towelsAndPatterns.right();
-    return patterns.stream()
-      .filter(pattern -> isPossible(pattern, towels, new HashMap<>()))
+    final CacheMetrics metrics = new CacheMetrics("day19.cache");
+    final long possible = patterns.stream()
+      .filter(pattern -> isPossible(pattern, towels, new HashMap<>(), metrics))
       .count();
+    metrics.report();
+    return possible;
   }
 
   @Override
-  public Long part2(String input) {
-    final Pair<List<String>, List<String>> towelsAndPatterns = parseTowelsAndPatterns(input);
+  public Long part2(Pair<List<String>, List<String>> towelsAndPatterns) {
     final List<String> towels = towelsAndPatterns.left();
     final List<String> patterns = towelsAndPatterns.right();
-    return patterns.stream()
-      .map(pattern -> countPossible(pattern, towels, new HashMap<>()))
+    final CacheMetrics metrics = new CacheMetrics("day19.cache");
+    final long ways = patterns.stream()
+      .map(pattern -> countPossible(pattern, towels, new HashMap<>(), metrics))
       .reduce(Long::sum)
       .orElseThrow();
+    metrics.report();
+    return ways;
   }
 
   /**
@@ -36,7 +41,8 @@ public class Day19 implements Day<Long> {
    * @param input the input
    * @return a {@link Pair} of a list of towels and a list of patterns
    */
-  private Pair<List<String>, List<String>> parseTowelsAndPatterns(final String input) {
+  @Override
+  public Pair<List<String>, List<String>> parse(final String input) {
     final List<String> lines = input.lines().toList();
     final List<String> towels = Arrays.stream(lines.getFirst().split(", ")).toList();
     final List<String> patterns = lines.subList(2, lines.size());
@@ -50,13 +56,17 @@ public class Day19 implements Day<Long> {
    * @param pattern the pattern
    * @param towels  the list of towels
    * @param cache   the cache for memoization
+   * @param metrics the counts of the cache hits and misses
    * @return true if the pattern is possible, false otherwise
    */
-  private boolean isPossible(final String pattern, final List<String> towels, final Map<String, Boolean> cache) {
+  private boolean isPossible(final String pattern, final List<String> towels, final Map<String, Boolean> cache,
+                             final CacheMetrics metrics) {
     // Try and retrieve the answer from the cache
     if (cache.containsKey(pattern)) {
+      metrics.hit();
       return cache.get(pattern);
     }
+    metrics.miss();
     // Base case: An empty pattern is possible
     if (pattern.isBlank()) {
       return cacheAndGet(pattern, true, cache);
@@ -64,7 +74,7 @@ public class Day19 implements Day<Long> {
     // For each towel that the pattern starts with, we check if the rest of the pattern is possible, using recursion
     return towels.stream()
       .filter(pattern::startsWith)
-      .filter(towel -> isPossible(pattern.replaceFirst(towel, ""), towels, cache))
+      .filter(towel -> isPossible(pattern.replaceFirst(towel, ""), towels, cache, metrics))
       .findFirst()
       .map(towel -> cacheAndGet(pattern, true, cache))
       .orElse(cacheAndGet(pattern, false, cache));
@@ -77,13 +87,17 @@ public class Day19 implements Day<Long> {
    * @param pattern the pattern
    * @param towels  the list of towels
    * @param cache   the cache for memoization
+   * @param metrics the counts of the cache hits and misses
    * @return the number of possible ways the pattern can be created
    */
-  private long countPossible(final String pattern, final List<String> towels, final Map<String, Long> cache) {
+  private long countPossible(final String pattern, final List<String> towels, final Map<String, Long> cache,
+                             final CacheMetrics metrics) {
     // Try and retrieve the answer from the cache
     if (cache.containsKey(pattern)) {
+      metrics.hit();
       return cache.get(pattern);
     }
+    metrics.miss();
     // Base case: An empty pattern is created in a single way
     if (pattern.isBlank()) {
       return cacheAndGet(pattern, 1L, cache);
@@ -92,7 +106,7 @@ public class Day19 implements Day<Long> {
     // can be created, using recursion
     final long count = towels.stream()
       .filter(pattern::startsWith)
-      .map(towel -> countPossible(pattern.replaceFirst(towel, ""), towels, cache))
+      .map(towel -> countPossible(pattern.replaceFirst(towel, ""), towels, cache, metrics))
       .reduce(Long::sum)
       .orElse(0L);
     return cacheAndGet(pattern, count, cache);
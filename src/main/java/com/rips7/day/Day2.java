@@ -1,8 +1,7 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.io.TokenScanner;
 
-import java.util.Arrays;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -22,22 +21,27 @@ public class Day2 implements Day<Long> {
         .count();
   }
 
-  private Stream<Long[]> parseLines(final String input) {
-    return Util.lines(input)
-        .map(line -> line.split("\\s+"))
-        .map(parts -> Arrays.stream(parts).map(Long::parseLong).toArray(Long[]::new));
+  private Stream<long[]> parseLines(final String input) {
+    final TokenScanner scanner = TokenScanner.of(input);
+    final Stream.Builder<long[]> reports = Stream.builder();
+    while (scanner.nextLine()) {
+      if (scanner.hasNextNumber()) {
+        reports.add(scanner.nextLongs());
+      }
+    }
+    return reports.build();
   }
 
-  private boolean checkSafe(final Long[] levels) {
+  private boolean checkSafe(final long[] levels) {
     // Determine behaviour from first two levels
-    if (levels[0].equals(levels[1])) {
+    if (levels[0] == levels[1]) {
       return false;
     }
     final boolean increasing = levels[0] < levels[1];
 
     for (int i = 0; i < levels.length - 1; i++) {
       // If two levels are the same, it's not safe
-      if (levels[i].equals(levels[i + 1])) {
+      if (levels[i] == levels[i + 1]) {
         return false;
       }
       // If two levels are increasing, but behaviour is not increasing, it's not safe
@@ -57,16 +61,16 @@ public class Day2 implements Day<Long> {
     return true;
   }
 
-  private boolean checkSafeWithDampener(final Long[] levels) {
+  private boolean checkSafeWithDampener(final long[] levels) {
     // Determine behaviour from first two levels
-    if (levels[0].equals(levels[1])) {
+    if (levels[0] == levels[1]) {
       return dampenUnsafe(levels);
     }
     final boolean increasing = levels[0] < levels[1];
 
     for (int i = 0; i < levels.length - 1; i++) {
       // If two levels are the same, it's not safe
-      if (levels[i].equals(levels[i + 1])) {
+      if (levels[i] == levels[i + 1]) {
         return dampenUnsafe(levels);
       }
       // If two levels are increasing, but behaviour is not increasing, it's not safe
@@ -86,14 +90,14 @@ public class Day2 implements Day<Long> {
     return true;
   }
 
-  private boolean dampenUnsafe(final Long[] levels) {
+  private boolean dampenUnsafe(final long[] levels) {
     // Try to dampen each level and, if at any point, the new levels are safe, return true
     return IntStream.range(0, levels.length)
         .anyMatch(i -> checkSafe(dampenLevel(levels, i)));
   }
 
-  private Long[] dampenLevel(final Long[] levels, final int index) {
-    final Long[] newLevels = new Long[levels.length - 1];
+  private long[] dampenLevel(final long[] levels, final int index) {
+    final long[] newLevels = new long[levels.length - 1];
     System.arraycopy(levels, 0, newLevels, 0, index);
     System.arraycopy(levels, index + 1, newLevels, index, levels.length - index - 1);
     return newLevels;
@@ -1,77 +1,72 @@
 package com.rips7.day;
 
+import com.rips7.util.CharGrid;
+import com.rips7.util.Coords;
+import com.rips7.util.Coords.Neighbours;
+import com.rips7.util.IndexedCharGrid;
 import com.rips7.util.Util;
-import com.rips7.util.Util.Grid;
 import com.rips7.util.Util.Offset;
-import com.rips7.util.Util.Position;
 
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Arrays;
 
-public class Day20 implements Day<Long> {
+public class Day20 implements ParsedDay<Day20.RaceTrack, Long> {
 
   @Override
-  public Long part1(String input) {
-    final Grid<Character> grid = parseGrid(input);
-    final Long[][] distances = calculateDistances(grid);
-    return countCheats(grid, distances, 2, 100);
+  public RaceTrack parse(String input) {
+    final IndexedCharGrid grid = IndexedCharGrid.parse(input, '#');
+    final int[] distances = calculateDistances(grid);
+    return new RaceTrack(grid.grid(), distances);
   }
 
   @Override
-  public Long part2(String input) {
-    final Grid<Character> grid = parseGrid(input);
-    final Long[][] distances = calculateDistances(grid);
-    return countCheats(grid, distances, 20, 100);
+  public Long part1(RaceTrack track) {
+    return countCheats(track.grid(), track.distances(), 2, 100);
+  }
+
+  @Override
+  public Long part2(RaceTrack track) {
+    return countCheats(track.grid(), track.distances(), 20, 100);
   }
 
   /**
-   * Parses the input into a {@link Grid}
+   * Models the race track, along with the distance of each cell from the start
    *
-   * @param input the input
-   * @return the parsed {@link Grid}
+   * @param grid      the grid
+   * @param distances the distances, by the dense index of their cell (see {@link Coords})
    */
-  private Grid<Character> parseGrid(final String input) {
-    return Grid.of(input.lines()
-        .map(line -> line.chars()
-          .mapToObj(c -> (char) c)
-          .toArray(Character[]::new))
-        .toArray(Character[][]::new),
-      '#');
-  }
+  record RaceTrack(CharGrid grid, int[] distances) { }
 
   /**
-   * Calculates a matrix of distances where each empty cell has its distance from the start, and all the walls
-   * have -1
+   * Calculates the distances where each empty cell has its distance from the start, and all the walls have -1
    *
    * @param grid the grid
-   * @return the distance matri
+   * @return the distances, by the dense index of their cell
    */
-  private Long[][] calculateDistances(final Grid<Character> grid) {
-    final Position start = grid.find('S');
-    final Position end = grid.find('E');
-    Position current = start;
-    final Long[][] distances = Util.newGeneric2DArray(Long.class, grid.rows(), grid.cols());
-    Util.loop2D(grid.rows(), grid.cols(), (r, c) -> distances[r][c] = -1L);
+  private int[] calculateDistances(final IndexedCharGrid grid) {
+    final int start = grid.findIndex('S');
+    final int end = grid.findIndex('E');
+    final Neighbours neighbours = new Neighbours(Offset.getOrthogonal(), grid.rows(), grid.cols());
+    int current = start;
+    final int[] distances = new int[grid.size()];
+    Arrays.fill(distances, -1);
     // Distance to start is 0
-    distances[start.x()][start.y()] = 0L;
+    distances[start] = 0;
     // There is a single path from start to end, so we just move one step at a time until we reach the end
-    while (!current.equals(end)) {
-      for (final Offset offset : List.of(Offset.UP, Offset.RIGHT, Offset.DOWN, Offset.LEFT)) {
-        final Position next = current.apply(offset);
+    while (current != end) {
+      for (neighbours.of(current); neighbours.hasNext(); ) {
+        final int next = neighbours.next();
         // If it's a wall, skip it
-        if (grid.get(next) == '#') {
+        if (grid.getAt(next) == '#') {
           continue;
         }
         // If the distance to this cell has been calculated before (i.e. is not -1), skip it
-        if (distances[next.x()][next.y()] != -1) {
+        if (distances[next] != -1) {
           continue;
         }
         // Otherwise, the distance to the new cell is the distance to the current one, plus 1
-        distances[next.x()][next.y()] = distances[current.x()][current.y()] + 1;
+        distances[next] = distances[current] + 1;
         current = next;
+        break;
       }
     }
     return distances;
@@ -81,48 +76,53 @@ public class Day20 implements Day<Long> {
    * Counts the number of cheats to achieve the target picoseconds
    *
    * @param grid              the grid
-   * @param distances         the distances matrix
+   * @param distances         the distances, by dense index
    * @param maxCheatsAllowed  the maximum number of cheats allowed
    * @param targetPicoseconds the target picoseconds to achieve
    * @return the number of cheats that can achieve the target picoseconds
    */
   @SuppressWarnings("SameParameterValue")
-  private long countCheats(final Grid<Character> grid, final Long[][] distances, final int maxCheatsAllowed,
+  private long countCheats(final CharGrid grid, final int[] distances, final int maxCheatsAllowed,
       final int targetPicoseconds) {
-    final AtomicLong count = new AtomicLong();
-    Util.loop2D(distances, (d, r, c) -> {
-      final Position current = Position.of(r, c);
-      // If the current position is a wall, skip it
-      if (grid.get(current) == '#') {
-        return;
-      }
-      // Loop through the available number of cheats
-      for (int cheats = 2; cheats <= maxCheatsAllowed; cheats++) {
-        // Loop through the current number of cheats, as the row offset
-        for (int rowOffset = 0; rowOffset <= cheats; rowOffset++) {
-          // The remaining number of cheats, are the column offset
-          final int colOffset = cheats - rowOffset;
-          // Get the next positions from the row / column offsets (i.e. applying the current cheats)
-          // This has to be a set, because some positions could be double-counted
-          final Set<Position> nextPositions = Stream.of(
-              Position.of(r + rowOffset, c + colOffset),
-              Position.of(r + rowOffset, c - colOffset),
-              Position.of(r - rowOffset, c + colOffset),
-              Position.of(r - rowOffset, c - colOffset))
-            .collect(Collectors.toSet());
-          for (final Position next : nextPositions) {
-            // If after applying the cheats, we hit a wall, skip it
-            if (grid.get(next) == '#') {
-              continue;
-            }
-            // If we have achieved the target picoseconds, increment the count
-            if (distances[next.x()][next.y()] - d >= targetPicoseconds + cheats) {
-              count.incrementAndGet();
+    final int rows = grid.rows();
+    final int cols = grid.cols();
+    // Count the cheats starting at each position, in parallel row tiles
+    return Util.parallelSum2D(rows, cols, (r, c) -> {
+        final int d = distances[Coords.index(r, c, cols)];
+        // If the current position is a wall, skip it
+        if (d == -1) {
+          return 0;
+        }
+        long count = 0;
+        // Loop through the available number of cheats
+        for (int cheats = 2; cheats <= maxCheatsAllowed; cheats++) {
+          // Loop through the current number of cheats, as the row offset
+          for (int rowOffset = 0; rowOffset <= cheats; rowOffset++) {
+            // The remaining number of cheats, are the column offset
+            final int colOffset = cheats - rowOffset;
+            // Apply the cheats in the four diagonal directions. A zero offset is not negated, so that its cells are
+            // not counted twice
+            for (int rowSign = 1; rowSign >= (rowOffset == 0 ? 1 : -1); rowSign -= 2) {
+              for (int colSign = 1; colSign >= (colOffset == 0 ? 1 : -1); colSign -= 2) {
+                final int nextRow = r + rowSign * rowOffset;
+                final int nextCol = c + colSign * colOffset;
+                // If after applying the cheats, we end up outside or hit a wall, skip it
+                if (!Util.isWithinGrid(nextRow, nextCol, rows, cols)) {
+                  continue;
+                }
+                final int next = distances[Coords.index(nextRow, nextCol, cols)];
+                if (next == -1) {
+                  continue;
+                }
+                // If we have achieved the target picoseconds, increment the count
+                if (next - d >= targetPicoseconds + cheats) {
+                  count++;
+                }
+              }
             }
           }
         }
-      }
+        return count;
     });
-    return count.get();
   }
 }
@@ -3,6 +3,7 @@ package com.rips7.day;
 import com.rips7.util.Util.Offset;
 import com.rips7.util.Util.Position;
 import com.rips7.util.maths.Combinatorics.Pair;
+import com.rips7.util.metrics.CacheMetrics;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -43,17 +44,20 @@ public class Day21 implements Day<Long> {
     final NumKeypad numKeypad = new NumKeypad();
     final DirKeypad dirKeypad = new DirKeypad();
 
-    return codes.stream()
+    final CacheMetrics metrics = new CacheMetrics("day21.cache");
+    final long complexity = codes.stream()
       // For each code, get the sequence options from the numeric keypad
       .map(code -> numKeypad.getSequenceOptions(code).stream()
         // For each option, compute the length of the shortest sequence
-        .map(option -> dirKeypad.computeLength(option, dirKeypads, new HashMap<>()))
+        .map(option -> dirKeypad.computeLength(option, dirKeypads, new HashMap<>(), metrics))
         .min(Long::compareTo)
         // Calculate complexity
         .map(minOptionLength -> minOptionLength * Long.parseLong(code.replace("A", "")))
         .orElseThrow())
       .reduce(Long::sum)
       .orElseThrow();
+    metrics.report();
+    return complexity;
   }
 
   /**
@@ -137,9 +141,11 @@ public class Day21 implements Day<Long> {
      * @param sequence the sequence
      * @param depth    the current depth
      * @param cache    the cache to improve recursion calculations
+     * @param metrics  the counts of the cache hits and misses
      * @return the length of the final sequence
      */
-    private long computeLength(final String sequence, final int depth, final Map<Pair<String, Integer>, Long> cache) {
+    private long computeLength(final String sequence, final int depth, final Map<Pair<String, Integer>, Long> cache,
+                               final CacheMetrics metrics) {
       // Prepend 'A' because that's where the arm starts at
       final String fullSequence = "A" + sequence;
       // Construct the consecutive pairs to step through the whole sequence
@@ -150,8 +156,10 @@ public class Day21 implements Day<Long> {
       final Pair<String, Integer> cacheKey = Pair.of(sequence, depth);
       // If we have computed the final length of a certain sequence at a certain depth, we retrieve it from the cache
       if (cache.containsKey(cacheKey)) {
+        metrics.hit();
         return cache.get(cacheKey);
       }
+      metrics.miss();
       // Base case: Retrieve the shortest distance from the pre-computed shortest key distances
       if (depth == 1) {
         final long result = pairs.stream()
@@ -167,7 +175,7 @@ public class Day21 implements Day<Long> {
         .map(pair -> keySequences().get(pair.left()).get(pair.right()))
         .map(keySequences -> keySequences.stream()
           // Recursively call this function with each consecutive pair from the sequence, and one depth less
-          .map(keySequence -> computeLength(keySequence, depth - 1, cache))
+          .map(keySequence -> computeLength(keySequence, depth - 1, cache, metrics))
           // Find the shortest sequence from the result
           .min(Long::compareTo)
           .orElseThrow())
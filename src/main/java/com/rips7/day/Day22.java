@@ -1,74 +1,84 @@
 package com.rips7.day;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import com.rips7.util.collections.IntIntMap;
+import com.rips7.util.collections.IntSet;
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.io.TokenScanner;
 
 public class Day22 implements Day<Long> {
 
+  /**
+   * The number of distinct four-price-changes
+   */
+  private static final int FOUR_PRICE_CHANGES = 19 * 19 * 19 * 19;
+
   @Override
   public Long part1(String input) {
-    return input.lines()
-      .map(Long::parseLong)
-      .map(seed -> {
-        // Run the seed secret through the 2000 steps
-        long secret = seed;
-        for (int i = 0; i < 2000; i++) {
-          secret = nextSecret(secret);
-        }
-        return secret;
-      })
+    long sum = 0;
+    for (final long seed : parseSeeds(input)) {
+      // Run the seed secret through the 2000 steps
+      long secret = seed;
+      for (int i = 0; i < 2000; i++) {
+        secret = nextSecret(secret);
+      }
       // Sum up all the 2000th secrets
-      .reduce(Long::sum)
-      .orElseThrow();
+      sum += secret;
+    }
+    return sum;
   }
 
   @Override
   public Long part2(String input) {
-    final List<Long> seeds = input.lines()
-      .map(Long::parseLong)
-      .toList();
+    final long[] seeds = parseSeeds(input);
 
-    // Keeps track of all the totals if we were to sell after a given four-price-changes
-    final Map<FourPriceChanges, Long> fourPriceChangesTotals = new HashMap<>();
+    // Keeps track of all the totals if we were to sell after a given four-price-changes, keyed by the changes in base 19
+    final IntIntMap fourPriceChangesTotals = new IntIntMap(FOUR_PRICE_CHANGES);
+    int best = 0;
+    // Keep track of all the seen four-price-changes of a buyer, reused between buyers
+    final IntSet seen = new IntSet(2000);
+    final int[] prices = new int[2001];
 
     // Loop through the seeds / buyers
+    final CancellationToken token = CancellationToken.current();
     for (final long seed : seeds) {
+      token.checkpoint();
       // Construct all the secrets and keep track of the prices
       long secret = seed;
-      final List<Long> prices = new ArrayList<>(List.of(secret % 10));
+      prices[0] = (int) (secret % 10);
       for (int i = 0; i < 2000; i++) {
         secret = nextSecret(secret);
-        prices.add(secret % 10);
+        prices[i + 1] = (int) (secret % 10);
       }
-      // Keep track of all the seen four-price-changes
-      final Set<FourPriceChanges> seen = new HashSet<>();
-      for (int i = 0; i < prices.size() - 4; i++) {
+      seen.clear();
+      for (int i = 0; i < prices.length - 4; i++) {
         // Construct all four price changes
-        final FourPriceChanges fourPriceChanges = new FourPriceChanges(
-          prices.get(i + 1) - prices.get(i),
-          prices.get(i + 2) - prices.get(i + 1),
-          prices.get(i + 3) - prices.get(i + 2),
-          prices.get(i + 4) - prices.get(i + 3));
-        // If we've seen this four-price-change, skip it
-        if (seen.contains(fourPriceChanges)) {
+        final int fourPriceChanges = fourPriceChanges(
+          prices[i + 1] - prices[i],
+          prices[i + 2] - prices[i + 1],
+          prices[i + 3] - prices[i + 2],
+          prices[i + 4] - prices[i + 3]);
+        // If we've seen this four-price-change, skip it. Otherwise, add it to the seen set
+        if (!seen.add(fourPriceChanges)) {
           continue;
         }
-        // Otherwise, add it to the seen set
-        seen.add(fourPriceChanges);
         // And merge it to the totals map, i.e. try to associate the current price with the four-price-changes, but if
         // we have seen it before from a previous buyer, add to the sum
-        fourPriceChangesTotals.merge(fourPriceChanges, prices.get(i + 4), Long::sum);
+        best = Math.max(best, fourPriceChangesTotals.addTo(fourPriceChanges, prices[i + 4]));
       }
     }
 
     // We want the maximum from totals
-    return fourPriceChangesTotals.values().stream()
-      .max(Long::compareTo)
-      .orElseThrow();
+    return (long) best;
+  }
+
+  /**
+   * Parses the seeds, one per line
+   *
+   * @param input the input
+   * @return the seeds
+   */
+  private long[] parseSeeds(final String input) {
+    return TokenScanner.of(input).nextLongs();
   }
 
   /**
@@ -95,14 +105,15 @@ public class Day22 implements Day<Long> {
   }
 
   /**
-   * Wrapper record for four changes
+   * Encodes four changes as a number in base 19, since each change is within {@code [-9, 9]}
    *
    * @param change1 the first change
    * @param change2 the second change
    * @param change3 the third change
    * @param change4 the fourth change
+   * @return the encoded changes, within {@code [0, 19^4)}
    */
-  private record FourPriceChanges(long change1, long change2, long change3, long change4) {
-
+  private static int fourPriceChanges(final int change1, final int change2, final int change3, final int change4) {
+    return ((((change1 + 9) * 19 + change2 + 9) * 19 + change3 + 9) * 19) + change4 + 9;
   }
 }
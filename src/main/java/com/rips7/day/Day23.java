@@ -1,5 +1,7 @@
 package com.rips7.day;
 
+import com.rips7.util.concurrent.CancellationToken;
+
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,12 +11,10 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class Day23 implements Day<String> {
+public class Day23 implements ParsedDay<Map<String, Set<String>>, String> {
 
   @Override
-  public String part1(String input) {
-    final Map<String, Set<String>> computers = parseComputers(input);
-
+  public String part1(Map<String, Set<String>> computers) {
     // Create the LANs as follows
     final Set<List<String>> LANs = computers.keySet().stream()
       // For each computer 'computer1'
@@ -37,9 +37,7 @@ public class Day23 implements Day<String> {
   }
 
   @Override
-  public String part2(String input) {
-    final Map<String, Set<String>> computers = parseComputers(input);
-
+  public String part2(Map<String, Set<String>> computers) {
     // Find all LANs
     final Set<List<String>> allLANs = new HashSet<>();
     for (final String computer : computers.keySet()) {
@@ -65,6 +63,8 @@ public class Day23 implements Day<String> {
    */
   private void search(final String computer, final Set<String> LAN, final Map<String, Set<String>> computers,
                       final Set<List<String>> allLANs) {
+    // The search can explode on dense inputs, so give up here if the part was cancelled
+    CancellationToken.poll();
     // Compute the LAN key as a sorted list of its computers
     final List<String> LANKey = LAN.stream().sorted().toList();
     // If the current LAN is part of all LANs, skip it
@@ -94,7 +94,8 @@ public class Day23 implements Day<String> {
    * @param input the input
    * @return a map of computers to a set of connected computers
    */
-  private Map<String, Set<String>> parseComputers(final String input) {
+  @Override
+  public Map<String, Set<String>> parse(final String input) {
     final List<String> connections = input.lines().toList();
     final Map<String, Set<String>> computers = new HashMap<>();
     connections.stream()
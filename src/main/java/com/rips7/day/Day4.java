@@ -1,13 +1,11 @@
 package com.rips7.day;
 
+import com.rips7.util.CharGrid;
 import com.rips7.util.Util;
-import com.rips7.util.Util.Direction;
 import com.rips7.util.Util.Offset;
 import com.rips7.util.Util.Position;
-import com.rips7.util.Util.TriConsumer;
 
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class Day4 implements Day<Long> {
 
@@ -17,36 +15,34 @@ public class Day4 implements Day<Long> {
 
     final Puzzle puzzle = Puzzle.parse(input);
 
-    final AtomicInteger res = new AtomicInteger();
-
-    puzzle.search((e, r, c) -> {
+    // Count the matches starting at each cell, in parallel row tiles
+    return Util.parallelSum2D(puzzle.height(), puzzle.width(), (r, c) -> {
         // We only consider starting positions that match the initial letter
-        if (e != wordToLookFor.charAt(0)) {
-          return;
+        if (puzzle.get(r, c) != wordToLookFor.charAt(0)) {
+          return 0;
         }
+        long matches = 0;
         // Check every possible direction
-        for (final Direction dir : Direction.values()) {
-          // Create a Position object for easier indexing
-          Position pos = Position.of(r, c);
+        for (int offset = 0; offset < Offset.COUNT; offset++) {
+          final int dr = Offset.drOf(offset);
+          final int dc = Offset.dcOf(offset);
           int letterIndex;
           for (letterIndex = 1; letterIndex < wordToLookFor.length(); letterIndex++) {
-            // Move along the direction we are checking
-            final Position nextPos = pos.apply(dir.offset());
+            // Move along the direction we are checking, by as many steps as letters
+            final int row = r + letterIndex * dr;
+            final int col = c + letterIndex * dc;
             // If we end up outside the grid, or the current spot does not contain the letter we are looking for, break
-            if (puzzle.get(nextPos) != wordToLookFor.charAt(letterIndex)) {
+            if (puzzle.chars().get(row, col) != wordToLookFor.charAt(letterIndex)) {
               break;
             }
-            // Update the position
-            pos = nextPos;
           }
           // If we have reached the end of the word, we have a match, so increment the counter
           if (letterIndex == wordToLookFor.length()) {
-            res.incrementAndGet();
+            matches++;
           }
         }
+        return matches;
     });
-
-    return res.longValue();
   }
 
   @Override
@@ -55,17 +51,17 @@ public class Day4 implements Day<Long> {
 
     final Puzzle puzzle = Puzzle.parse(input);
 
-    final AtomicInteger res = new AtomicInteger();
-
-    puzzle.search((e, r, c) -> {
+    // Count the crosses centred at each cell, in parallel row tiles
+    return Util.parallelSum2D(puzzle.height(), puzzle.width(), (r, c) -> {
       // We don't need to check the edges
       if (r == 0 || c == 0 || r == puzzle.height() - 1 || c == puzzle.width() - 1) {
-        return;
+        return 0;
       }
 
       // We only consider starting positions that match the middle letter
+      final char e = puzzle.get(r, c);
       if (e != 'A') {
-        return;
+        return 0;
       }
 
       // Create a Position object for easier indexing
@@ -79,39 +75,30 @@ public class Day4 implements Day<Long> {
       final String upLeftDownRightWord = "%s%s%s"
           .formatted(puzzle.get(pos.apply(Offset.LEFT_UP)), e, puzzle.get(pos.apply(Offset.RIGHT_DOWN)));
 
-      // Check if they are valid words, and if so, increment the counter
-      if (validWords.contains(upRightDownLeftWord) && validWords.contains(upLeftDownRightWord)) {
-        res.incrementAndGet();
-      }
+      // Check if they are valid words, and if so, count the cross
+      return validWords.contains(upRightDownLeftWord) && validWords.contains(upLeftDownRightWord) ? 1 : 0;
     });
-
-    return res.longValue();
   }
 
-  private record Puzzle(Character[][] chars) {
+  private record Puzzle(CharGrid chars) {
     private static Puzzle parse(final String input) {
-      final Character[][] chars = Util.lines(input)
-          .map(line -> line.chars()
-              .mapToObj(c -> (char) c)
-              .toArray(Character[]::new))
-          .toArray(Character[][]::new);
-      return new Puzzle(chars);
+      return new Puzzle(CharGrid.parse(input, '-'));
     }
 
-    private void search(final TriConsumer<Character, Integer, Integer> callback) {
-      Util.loop2D(chars, callback);
+    private char get(final int row, final int col) {
+      return chars.getUnchecked(row, col);
     }
 
     private char get(final Position pos) {
-      return Util.isWithinGrid(pos, chars) ? chars[pos.x()][pos.y()] : '-';
+      return chars.get(pos);
     }
 
     private int height() {
-      return chars.length;
+      return chars.rows();
     }
 
     private int width() {
-      return chars[0].length;
+      return chars.cols();
     }
   }
 }
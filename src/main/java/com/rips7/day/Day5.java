@@ -11,13 +11,10 @@ import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-public class Day5 implements Day<Long> {
+public class Day5 implements ParsedDay<Pair<Day5.RuleBook, List<Day5.Update>>, Long> {
 
   @Override
-  public Long part1(String input) {
-    // Parse Rulebook and list of Updates
-    final Pair<RuleBook, List<Update>> ruleBookAndUpdates = parseRuleBookAndUpdates(input);
-
+  public Long part1(Pair<RuleBook, List<Update>> ruleBookAndUpdates) {
     final RuleBook ruleBook = ruleBookAndUpdates.left();
     final List<Update> updates = ruleBookAndUpdates.right();
 
@@ -30,10 +27,7 @@ public class Day5 implements Day<Long> {
   }
 
   @Override
-  public Long part2(String input) {
-    // Parse Rulebook and list of Updates
-    final Pair<RuleBook, List<Update>> ruleBookAndUpdates = parseRuleBookAndUpdates(input);
-
+  public Long part2(Pair<RuleBook, List<Update>> ruleBookAndUpdates) {
     final RuleBook ruleBook = ruleBookAndUpdates.left();
     final List<Update> updates = ruleBookAndUpdates.right();
 
@@ -52,12 +46,13 @@ public class Day5 implements Day<Long> {
    * @param input the input
    * @return a {@link Pair} of a {@link RuleBook} and a list of {@link Update}s
    */
-  private Pair<RuleBook, List<Update>> parseRuleBookAndUpdates(final String input) {
+  @Override
+  public Pair<RuleBook, List<Update>> parse(final String input) {
     return Util.lines(input)
         .collect(Collectors.teeing(
             Collectors.filtering(Rule::check, Collectors.mapping(Rule::parse, Collectors.toList())),
             Collectors.filtering(Update::check, Collectors.mapping(Update::parse, Collectors.toList())),
-            (rules, updates) -> Pair.of(RuleBook.compile(rules), updates)));
+            (rules, updates) -> Pair.of(RuleBook.compile(rules), List.copyOf(updates))));
   }
 
   /**
@@ -98,7 +93,7 @@ public class Day5 implements Day<Long> {
    *
    * @param rules the rule
    */
-  private record RuleBook(Map<Integer, Set<Integer>> rules) {
+  record RuleBook(Map<Integer, Set<Integer>> rules) {
 
     /**
      * Compiles the given rules into a rule book
@@ -140,7 +135,7 @@ public class Day5 implements Day<Long> {
    *
    * @param pages the list of pages
    */
-  private record Update(List<Integer> pages) {
+  record Update(List<Integer> pages) {
     private static final Pattern UPDATE_PATTERN_MATCH = Pattern.compile("((\\d+)|(\\d+,)+(\\d+))");
 
     /**
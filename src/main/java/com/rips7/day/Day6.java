@@ -1,15 +1,12 @@
 package com.rips7.day;
 
+import com.rips7.util.CharGrid;
+import com.rips7.util.CharGridOverlay;
 import com.rips7.util.Util;
 import com.rips7.util.Util.Direction;
 import com.rips7.util.Util.Position;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.IntStream;
+import com.rips7.util.collections.VisitedSet;
+import com.rips7.util.concurrent.CancellationToken;
 
 public class Day6 implements Day<Long> {
 
@@ -27,12 +24,12 @@ public class Day6 implements Day<Long> {
     final Lab lab = Lab.parse(input);
     final Guard guard = lab.findGuard();
 
-    // Keep a set for visited positions
-    final Set<Position> visited = new HashSet<>();
+    // Keep the visited cells, by their dense index
+    final VisitedSet visited = new VisitedSet(lab.map.size());
 
     while(guard.isInside(lab)) {
       // Add the guard's position to the visited positions
-      visited.add(guard.pos);
+      visited.add(lab.map.index(guard.pos));
       // Move the guard to next position
       guard.move(lab);
     }
@@ -45,53 +42,47 @@ public class Day6 implements Day<Long> {
     final Lab lab = Lab.parse(input);
     final Guard guard = lab.findGuard();
 
-    return IntStream.range(0, lab.map.length).parallel()
-        .mapToObj(r -> IntStream.range(0, lab.map[r].length).parallel()
-            .mapToObj(c -> {
-              // If the current cell is not an empty one, we skip it, as we can't add an obstacle there
-              if (lab.map[r][c] != EMPTY) {
-                return 0L;
-              }
-
-              // Clone the lab and the guard to operate on the copies instead of mutating the original objects
-              final Lab labCopy = Lab.copyWithObstacle(lab, r, c);
-              final Guard guardCopy = Guard.copy(guard);
-
-              // Keep a history map, keyed by positions, with values the directions of the guard when moved through
-              // these positions
-              final Map<Position, Set<Direction>> history = new HashMap<>();
-
-              while(guardCopy.isInside(labCopy)) {
-                // Move the guard to next position
-                guardCopy.move(labCopy);
-
-                // If the history contains the guard's position and direction, we found a loop
-                if (history.getOrDefault(guardCopy.pos, Set.of()).contains(guardCopy.dir)) {
-                  return 1L;
-                }
-
-                // Add the position - direction into the history
-                history.merge(
-                    guardCopy.pos,
-                    new HashSet<>(Set.of(guardCopy.dir)),
-                    (existingSet, newSet) -> {
-                      existingSet.add(guardCopy.dir);
-                      return existingSet;
-                    });
-              }
-              return 0L;
-            }))
-        .flatMap(Function.identity())
-        .reduce(Long::sum)
-        .orElse(0L);
+    // The row tiles run on other threads, so the cancellation token is captured here
+    final CancellationToken token = CancellationToken.current();
+    // Each row tile reuses one history of the cells and directions the guard moved through, cleared for every obstacle
+    return Util.parallelSum2D(lab.map.rows(), lab.map.cols(),
+      () -> new VisitedSet(lab.map.size(), Direction.getDirections().size()), (history, r, c) -> {
+        // If the current cell is not an empty one, we skip it, as we can't add an obstacle there
+        if (lab.map.getUnchecked(r, c) != EMPTY) {
+          return 0L;
+        }
+
+        // Overlay the obstacle on the lab and clone the guard, instead of mutating the original objects
+        final Lab labCopy = Lab.copyWithObstacle(lab, r, c);
+        final Guard guardCopy = Guard.copy(guard);
+
+        history.clear();
+
+        while(guardCopy.isInside(labCopy)) {
+          token.checkpoint();
+          // Move the guard to next position
+          guardCopy.move(labCopy);
+          if (!guardCopy.isInside(labCopy)) {
+            break;
+          }
+
+          // If the history already contains the guard's position and direction, we found a loop
+          if (!history.add(labCopy.map.index(guardCopy.pos), guardCopy.dir.ordinal())) {
+            return 1L;
+          }
+        }
+        return 0L;
+    });
   }
 
   /**
    * Models the Lab
    *
-   * @param map the 2D character map of the lab
+   * @param map      the character map of the lab, as an overlay of the parsed map
+   * @param guardPos the starting {@link Position} of the guard
+   * @param guardDir the starting {@link Direction} of the guard
    */
-  private record Lab(Character[][] map) {
+  private record Lab(CharGridOverlay map, Position guardPos, Direction guardDir) {
 
     /**
      * Parses the given input into a {@link Lab}
@@ -100,16 +91,28 @@ public class Day6 implements Day<Long> {
      * @return the {@link Lab}
      */
     private static Lab parse(final String input) {
-      final Character[][] map = Util.lines(input)
-          .map(line -> line.chars()
-              .mapToObj(c -> (char) c)
-              .toArray(Character[]::new))
-          .toArray(Character[][]::new);
-      return new Lab(map);
+      final CharGrid map = CharGrid.parse(input, OUTSIDE);
+      // Scan the map once for any of the characters of the guard
+      for (int r = 0; r < map.rows(); r++) {
+        for (int c = 0; c < map.cols(); c++) {
+          final Direction guardDir = switch (map.getUnchecked(r, c)) {
+            case UP -> Direction.UP;
+            case RIGHT -> Direction.RIGHT;
+            case DOWN -> Direction.DOWN;
+            case LEFT -> Direction.LEFT;
+            default -> null;
+          };
+          if (guardDir != null) {
+            return new Lab(CharGridOverlay.of(map), Position.of(r, c), guardDir);
+          }
+        }
+      }
+      throw new RuntimeException("Cannot find guard");
     }
 
     /**
-     * Clones a {@link Lab} with an obstacle at the given row and column
+     * Clones a {@link Lab} with an obstacle at the given row and column. The map of the clone is an overlay that
+     * shares the parsed map, so only the obstacle is copied.
      *
      * @param source      the source {@link Lab}
      * @param obstacleRow the row of the obstacle
@@ -117,39 +120,16 @@ public class Day6 implements Day<Long> {
      * @return the cloned {@link Lab}
      */
     private static Lab copyWithObstacle(final Lab source, final int obstacleRow, final int obstacleCol) {
-      final Character[][] mapCopy = Util.copy2D(Character.class, source.map);
-      mapCopy[obstacleRow][obstacleCol] = OBSTACLE;
-      return new Lab(mapCopy);
+      return new Lab(source.map.with(obstacleRow, obstacleCol, OBSTACLE), source.guardPos, source.guardDir);
     }
 
     /**
-     * Finds the {@link Guard} in the {@link Lab}
+     * Places a new {@link Guard} at the starting position of the guard in the {@link Lab}, found when parsing it
      *
      * @return a {@link Guard} instance
      */
     private Guard findGuard() {
-      for (int r = 0; r < map.length; r++) {
-        for (int c = 0; c < map[r].length; c++) {
-          switch (map[r][c]) {
-            case UP -> {
-              return new Guard(Position.of(r, c), Direction.UP);
-            }
-            case RIGHT -> {
-              return new Guard(Position.of(r, c), Direction.RIGHT);
-            }
-            case DOWN -> {
-              return new Guard(Position.of(r, c), Direction.DOWN);
-            }
-            case LEFT -> {
-              return new Guard(Position.of(r, c), Direction.LEFT);
-            }
-            default -> {
-              // ignore
-            }
-          }
-        }
-      }
-      throw new RuntimeException("Cannot find guard");
+      return new Guard(guardPos, guardDir);
     }
 
     /**
@@ -158,10 +138,8 @@ public class Day6 implements Day<Long> {
      * @param pos the {@link Position}
      * @return the character
      */
-    private Character getCell(final Position pos) {
-      return Util.isWithinGrid(pos, map) ?
-          map[pos.x()][pos.y()] :
-          OUTSIDE;
+    private char getCell(final Position pos) {
+      return map.get(pos);
     }
   }
 
@@ -200,7 +178,7 @@ public class Day6 implements Day<Long> {
      * @return true if the guard is inside, false otherwise
      */
     private boolean isInside(final Lab lab) {
-      return Util.isWithinGrid(pos, lab.map);
+      return lab.map.isWithin(pos);
     }
 
     /**
@@ -214,7 +192,7 @@ public class Day6 implements Day<Long> {
      */
     private void move(final Lab lab) {
       final Position nextPos = pos.apply(dir.offset());
-      final Character nextCell = lab.getCell(nextPos);
+      final char nextCell = lab.getCell(nextPos);
       if (nextCell == OBSTACLE) {
         dir = dir.rotate90();
       } else {
@@ -1,16 +1,19 @@
 package com.rips7.day;
 
-import com.rips7.util.Util;
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.io.TokenScanner;
 
-import java.util.Arrays;
+import java.util.stream.Stream;
 
 public class Day7 implements Day<Long> {
 
   @Override
   public Long part1(String input) {
-    return Util.lines(input)
-        .map(Equation::parse)
+    // The parallel stream runs on other threads, so the cancellation token is captured here
+    final CancellationToken token = CancellationToken.current();
+    return Equation.parseAll(input)
         .parallel()
+        .peek(equation -> token.checkpoint())
         .filter(Equation::isValidTwoOperators)
         .map(Equation::result)
         .reduce(Long::sum)
@@ -19,9 +22,10 @@ public class Day7 implements Day<Long> {
 
   @Override
   public Long part2(String input) {
-    return Util.lines(input)
-        .map(Equation::parse)
+    final CancellationToken token = CancellationToken.current();
+    return Equation.parseAll(input)
         .parallel()
+        .peek(equation -> token.checkpoint())
         .filter(Equation::isValidThreeOperators)
         .map(Equation::result)
         .reduce(Long::sum)
@@ -37,19 +41,20 @@ public class Day7 implements Day<Long> {
   private record Equation(long result, long[] operands) {
 
     /**
-     * Parses an {@link Equation}
+     * Parses the {@link Equation}s, one per line
      *
-     * @param line the line to parse
-     * @return the parsed {@link Equation}
+     * @param input the input
+     * @return the stream of the parsed {@link Equation}s
      */
-    private static Equation parse(final String line) {
-      final String[] resultAndOperands = line.split(":\\s+");
-      final long result = Long.parseLong(resultAndOperands[0]);
-      final long[] operands = Arrays.stream(resultAndOperands[1].split("\\s+"))
-          .map(Long::parseLong)
-          .mapToLong(Long::longValue)
-          .toArray();
-      return new Equation(result, operands);
+    private static Stream<Equation> parseAll(final String input) {
+      final TokenScanner scanner = TokenScanner.of(input);
+      final Stream.Builder<Equation> equations = Stream.builder();
+      while (scanner.nextLine()) {
+        // The result comes before the colon, and the operands after it
+        final long result = scanner.nextLong();
+        equations.add(new Equation(result, scanner.nextLongs()));
+      }
+      return equations.build();
     }
 
     /**
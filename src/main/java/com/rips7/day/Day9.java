@@ -1,6 +1,7 @@
 package com.rips7.day;
 
 import com.rips7.util.Util;
+import com.rips7.util.concurrent.CancellationToken;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -101,7 +102,9 @@ public class Day9 implements Day<Long> {
       // Get the last file
       File file = findFile(map.size() - 1);
 
+      final CancellationToken token = CancellationToken.current();
       while (file != null) {
+        token.checkpoint();
         // Get the first empty space
         Empty empty = findEmpty(0);
 
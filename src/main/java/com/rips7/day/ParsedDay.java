@@ -0,0 +1,72 @@
+package com.rips7.day;
+
+import com.rips7.runner.DayResult;
+import com.rips7.runner.RunOptions;
+import com.rips7.util.jfr.DayEvent;
+import com.rips7.util.jfr.ParseEvent;
+import com.rips7.util.jfr.PartEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.rips7.util.Util.TimedResult;
+import static com.rips7.util.Util.time;
+
+/**
+ * A {@link Day} whose input is parsed once into a model, which is then handed to both parts. The model is shared
+ * between the parts, which may run concurrently, so it must not be mutated by them.
+ * <p>
+ * The input is loaded with {@link #loadInputBuffer(RunOptions)}. By default, the buffer is decoded and handed to
+ * {@link #parse(String)}, but days can override {@link #parse(ByteBuffer)} to parse the bytes directly.
+ *
+ * @param <M> the type of the parsed model
+ * @param <T> the type of the answers
+ */
+public interface ParsedDay<M, T> extends Day<T> {
+
+  M parse(String input);
+
+  default M parse(final ByteBuffer input) {
+    return parse(StandardCharsets.UTF_8.decode(input).toString());
+  }
+
+  T part1(M model);
+
+  T part2(M model);
+
+  @Override
+  default T part1(final String input) {
+    return part1(parse(input));
+  }
+
+  @Override
+  default T part2(final String input) {
+    return part2(parse(input));
+  }
+
+  @Override
+  default DayResult solve(final RunOptions options) {
+    return DayEvent.record(name(), options.parts().size(), () -> {
+      final TimedResult<M> parsed = timeParse(options);
+      return new DayResult(name(), parsed,
+        options.runs(1) ? timePart1(parsed.res(), options) : null,
+        options.runs(2) ? timePart2(parsed.res(), options) : null);
+    });
+  }
+
+  default TimedResult<M> timeParse(final RunOptions options) {
+    return ParseEvent.record(name(),
+      () -> time(() -> parse(loadInputBuffer(options)), options.warmups(), options.iterations()));
+  }
+
+  default TimedResult<T> timePart1(final M model, final RunOptions options) {
+    return PartEvent.record(name(), 1, options.warmups() + options.iterations(),
+      () -> time(() -> part1(model), options.warmups(), options.iterations()));
+  }
+
+  default TimedResult<T> timePart2(final M model, final RunOptions options) {
+    return PartEvent.record(name(), 2, options.warmups() + options.iterations(),
+      () -> time(() -> part2(model), options.warmups(), options.iterations()));
+  }
+
+}
@@ -0,0 +1,37 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.side;
+
+/**
+ * Generates a topographic map of random heights, overlaid with random hiking trails that climb from 0 to 9 one step at
+ * a time
+ */
+public class Day10Generator implements InputGenerator {
+
+  private static final int[][] DIRECTIONS = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = side(41, scale);
+    final char[][] map = new char[side][side];
+    for (final char[] row : map) {
+      for (int c = 0; c < side; c++) {
+        row[c] = (char) ('0' + random.nextInt(10));
+      }
+    }
+    for (int trail = 0; trail < side * side / 20; trail++) {
+      int r = random.nextInt(side);
+      int c = random.nextInt(side);
+      for (int height = 0; height <= 9; height++) {
+        map[r][c] = (char) ('0' + height);
+        final int[] dir = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+        r = Math.clamp(r + dir[0], 0, side - 1);
+        c = Math.clamp(c + dir[1], 0, side - 1);
+      }
+    }
+    return format(map);
+  }
+}
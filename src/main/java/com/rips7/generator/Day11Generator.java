@@ -0,0 +1,18 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a single line of stones with engraved numbers of 1 to 7 digits
+ */
+public class Day11Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 8 * scale)
+      .mapToObj(i -> String.valueOf(random.nextInt((int) Math.pow(10, 1 + random.nextInt(7)))))
+      .collect(Collectors.joining(" "));
+  }
+}
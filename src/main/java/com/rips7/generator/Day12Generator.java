@@ -0,0 +1,32 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.side;
+
+/**
+ * Generates a garden of irregular regions, by letting each plot mostly copy the plant type of its upper or left
+ * neighbour
+ */
+public class Day12Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = side(140, scale);
+    final char[][] garden = new char[side][side];
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        final int choice = random.nextInt(20);
+        if (choice < 9 && r > 0) {
+          garden[r][c] = garden[r - 1][c];
+        } else if (choice < 18 && c > 0) {
+          garden[r][c] = garden[r][c - 1];
+        } else {
+          garden[r][c] = (char) ('A' + random.nextInt(26));
+        }
+      }
+    }
+    return format(garden);
+  }
+}
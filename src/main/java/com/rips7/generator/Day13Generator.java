@@ -0,0 +1,44 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates claw machines with linearly independent buttons. About half of the prizes are reachable with at most 100
+ * presses of each button.
+ */
+public class Day13Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 320 * scale)
+      .mapToObj(i -> machine(random))
+      .collect(Collectors.joining("\n\n"));
+  }
+
+  private static String machine(final Random random) {
+    int ax;
+    int ay;
+    int bx;
+    int by;
+    do {
+      ax = 10 + random.nextInt(90);
+      ay = 10 + random.nextInt(90);
+      bx = 10 + random.nextInt(90);
+      by = 10 + random.nextInt(90);
+    } while (ax * by == ay * bx);
+    final long px;
+    final long py;
+    if (random.nextBoolean()) {
+      final int a = 1 + random.nextInt(100);
+      final int b = 1 + random.nextInt(100);
+      px = (long) a * ax + (long) b * bx;
+      py = (long) a * ay + (long) b * by;
+    } else {
+      px = 1000 + random.nextInt(19_000);
+      py = 1000 + random.nextInt(19_000);
+    }
+    return "Button A: X+%s, Y+%s\nButton B: X+%s, Y+%s\nPrize: X=%s, Y=%s".formatted(ax, ay, bx, by, px, py);
+  }
+}
@@ -0,0 +1,19 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates robots with random positions within the fixed 101x103 space and random velocities
+ */
+public class Day14Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 500 * scale)
+      .mapToObj(i -> "p=%s,%s v=%s,%s".formatted(
+        random.nextInt(101), random.nextInt(103), random.nextInt(-99, 100), random.nextInt(-99, 100)))
+      .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,39 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.filledGrid;
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.side;
+
+/**
+ * Generates a walled warehouse with scattered walls and boxes and a single robot, followed by the robot's moves in
+ * lines of 1000
+ */
+public class Day15Generator implements InputGenerator {
+
+  private static final String MOVES = "^>v<";
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = side(50, scale);
+    final char[][] warehouse = filledGrid(side, side, '#');
+    for (int r = 1; r < side - 1; r++) {
+      for (int c = 1; c < side - 1; c++) {
+        final int choice = random.nextInt(20);
+        warehouse[r][c] = choice == 0 ? '#' : choice < 6 ? 'O' : '.';
+      }
+    }
+    warehouse[side / 2][side / 2] = '@';
+
+    final int moves = 20_000 * scale;
+    final StringBuilder input = new StringBuilder(format(warehouse)).append("\n");
+    for (int i = 0; i < moves; i++) {
+      if (i % 1000 == 0) {
+        input.append('\n');
+      }
+      input.append(MOVES.charAt(random.nextInt(MOVES.length())));
+    }
+    return input.toString();
+  }
+}
@@ -0,0 +1,32 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.maze;
+import static com.rips7.generator.InputGenerators.oddSide;
+
+/**
+ * Generates a maze with the start at the bottom-left and the end at the top-right corner. A tenth of the inner walls
+ * are knocked down, so that there are several paths to compare.
+ */
+public class Day16Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = oddSide(141, scale);
+    final char[][] maze = maze(side, side, random);
+    for (int r = 1; r < side - 1; r++) {
+      for (int c = 1; c < side - 1; c++) {
+        final boolean horizontal = maze[r][c - 1] == '.' && maze[r][c + 1] == '.';
+        final boolean vertical = maze[r - 1][c] == '.' && maze[r + 1][c] == '.';
+        if (maze[r][c] == '#' && (horizontal ^ vertical) && random.nextInt(10) == 0) {
+          maze[r][c] = '.';
+        }
+      }
+    }
+    maze[side - 2][1] = 'S';
+    maze[1][side - 2] = 'E';
+    return format(maze);
+  }
+}
@@ -0,0 +1,23 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+/**
+ * Generates a computer with a random value in register A. The program is fixed, since part 2 solves the program by
+ * reverse engineering it, so the input does not grow with the scale.
+ */
+public class Day17Generator implements InputGenerator {
+
+  private static final String PROGRAM = "2,4,1,3,7,5,1,5,0,3,4,1,5,5,3,0";
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return "Register A: %s\nRegister B: 0\nRegister C: 0\n\nProgram: %s".formatted(
+      1 + random.nextInt(Integer.MAX_VALUE - 1), PROGRAM);
+  }
+
+  @Override
+  public boolean isScalable() {
+    return false;
+  }
+}
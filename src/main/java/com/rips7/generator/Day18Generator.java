@@ -0,0 +1,34 @@
+package com.rips7.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates every byte of the fixed 71x71 memory space (except the start and the exit) falling in a random order, so
+ * that the exit is eventually cut off. The memory space is fixed, so the input does not grow with the scale.
+ */
+public class Day18Generator implements InputGenerator {
+
+  private static final int DIM = 71;
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final List<String> bytes = new ArrayList<>();
+    for (int x = 0; x < DIM; x++) {
+      for (int y = 0; y < DIM; y++) {
+        if ((x != 0 || y != 0) && (x != DIM - 1 || y != DIM - 1)) {
+          bytes.add("%s,%s".formatted(x, y));
+        }
+      }
+    }
+    Collections.shuffle(bytes, random);
+    return String.join("\n", bytes);
+  }
+
+  @Override
+  public boolean isScalable() {
+    return false;
+  }
+}
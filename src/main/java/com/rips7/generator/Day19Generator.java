@@ -0,0 +1,63 @@
+package com.rips7.generator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Generates towel patterns of 1 to 8 stripes and designs of 20 to 60 stripes. As in the puzzle, one colour has no
+ * single-stripe towel, and most towels are long, so that the number of arrangements stays within a long. Designs are
+ * made of towels, and about a third of them have a stripe changed, which may make them impossible.
+ */
+public class Day19Generator implements InputGenerator {
+
+  private static final String COLOURS = "wubrg";
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final char missing = COLOURS.charAt(random.nextInt(COLOURS.length()));
+    final Set<String> towels = new LinkedHashSet<>();
+    COLOURS.chars()
+      .filter(c -> c != missing)
+      .forEach(c -> towels.add(String.valueOf((char) c)));
+    addTowels(towels, 2, 10, random);
+    addTowels(towels, 3, 30, random);
+    while (towels.size() < 450) {
+      addTowels(towels, 4 + random.nextInt(5), 1, random);
+    }
+    final List<String> towelList = new ArrayList<>(towels);
+
+    final List<String> designs = IntStream.range(0, 400 * scale)
+      .mapToObj(i -> design(towelList, random))
+      .toList();
+
+    return String.join(", ", towelList) + "\n\n" + String.join("\n", designs);
+  }
+
+  private static void addTowels(final Set<String> towels, final int length, final int count, final Random random) {
+    final int target = towels.size() + count;
+    while (towels.size() < target) {
+      final StringBuilder towel = new StringBuilder();
+      for (int i = 0; i < length; i++) {
+        towel.append(COLOURS.charAt(random.nextInt(COLOURS.length())));
+      }
+      towels.add(towel.toString());
+    }
+  }
+
+  private static String design(final List<String> towels, final Random random) {
+    final int length = 20 + random.nextInt(41);
+    final StringBuilder design = new StringBuilder();
+    while (design.length() < length) {
+      design.append(towels.get(random.nextInt(towels.size())));
+    }
+    design.setLength(length);
+    if (random.nextInt(3) == 0) {
+      design.setCharAt(random.nextInt(length), COLOURS.charAt(random.nextInt(COLOURS.length())));
+    }
+    return design.toString();
+  }
+}
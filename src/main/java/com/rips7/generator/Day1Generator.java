@@ -0,0 +1,23 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates two columns of 5-digit location ids, where about half of the right ids repeat a left id
+ */
+public class Day1Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int lines = 1000 * scale;
+    final int[] left = IntStream.range(0, lines)
+      .map(i -> 10_000 + random.nextInt(90_000))
+      .toArray();
+    return IntStream.range(0, lines)
+      .mapToObj(i -> "%s   %s".formatted(left[i],
+        random.nextBoolean() ? left[random.nextInt(lines)] : 10_000 + random.nextInt(90_000)))
+      .collect(Collectors.joining("\n"));
+  }
+}
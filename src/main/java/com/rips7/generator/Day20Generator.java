@@ -0,0 +1,53 @@
+package com.rips7.generator;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.filledGrid;
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.maze;
+import static com.rips7.generator.InputGenerators.oddSide;
+
+/**
+ * Generates a race track with a single winding path from the start at the bottom-left to the end at the top-right. The
+ * path is the route between the two corners of a random perfect maze, and every other cell is a wall.
+ */
+public class Day20Generator implements InputGenerator {
+
+  private static final int[][] DIRECTIONS = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = oddSide(141, scale);
+    final char[][] maze = maze(side, side, random);
+
+    // Find the route from the start to the end with a BFS, remembering where each cell was reached from
+    final int start = (side - 2) * side + 1;
+    final int end = side + side - 2;
+    final int[] previous = new int[side * side];
+    Arrays.fill(previous, -1);
+    previous[start] = start;
+    final Queue<Integer> queue = new ArrayDeque<>();
+    queue.add(start);
+    while (!queue.isEmpty() && previous[end] == -1) {
+      final int current = queue.poll();
+      for (final int[] dir : DIRECTIONS) {
+        final int next = current + dir[0] * side + dir[1];
+        if (maze[next / side][next % side] == '.' && previous[next] == -1) {
+          previous[next] = current;
+          queue.add(next);
+        }
+      }
+    }
+
+    final char[][] track = filledGrid(side, side, '#');
+    for (int cell = end; cell != start; cell = previous[cell]) {
+      track[cell / side][cell % side] = '.';
+    }
+    track[side - 2][1] = 'S';
+    track[1][side - 2] = 'E';
+    return format(track);
+  }
+}
@@ -0,0 +1,18 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates door codes of three digits followed by {@code A}
+ */
+public class Day21Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 5 * scale)
+      .mapToObj(i -> "%03dA".formatted(random.nextInt(1000)))
+      .collect(Collectors.joining("\n"));
+  }
+}
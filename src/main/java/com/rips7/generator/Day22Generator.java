@@ -0,0 +1,18 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the initial secret numbers of the buyers, below 2^24
+ */
+public class Day22Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 2300 * scale)
+      .mapToObj(i -> String.valueOf(1 + random.nextInt((1 << 24) - 1)))
+      .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,69 @@
+package com.rips7.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a network shaped like the puzzle's: groups of 13 computers that are fully connected except for a single
+ * missing link, one group that is fully connected (the unique biggest LAN), and one random link from each computer to
+ * another group. Computer names are two lowercase letters, or more when there are more than 676 computers.
+ */
+public class Day23Generator implements InputGenerator {
+
+  private static final int GROUP_SIZE = 13;
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int groups = 40 * scale;
+    final List<String> names = names(groups * GROUP_SIZE, random);
+
+    final Set<String> links = new LinkedHashSet<>();
+    for (int g = 0; g < groups; g++) {
+      final int first = g * GROUP_SIZE;
+      // Every group but the first misses one link, so that its biggest LAN has 12 computers
+      final int missing1 = g == 0 ? -1 : first + random.nextInt(GROUP_SIZE);
+      final int missing2 = g == 0 ? -1 : first + (missing1 - first + 1 + random.nextInt(GROUP_SIZE - 1)) % GROUP_SIZE;
+      for (int i = first; i < first + GROUP_SIZE; i++) {
+        for (int j = i + 1; j < first + GROUP_SIZE; j++) {
+          if (!(i == missing1 && j == missing2) && !(i == missing2 && j == missing1)) {
+            links.add(link(names.get(i), names.get(j), random));
+          }
+        }
+        // One link to a computer of another group
+        final int other = (i + GROUP_SIZE * (1 + random.nextInt(groups - 1)) + random.nextInt(GROUP_SIZE)) %
+          names.size();
+        if (other / GROUP_SIZE != g) {
+          links.add(link(names.get(i), names.get(other), random));
+        }
+      }
+    }
+
+    final List<String> shuffled = new ArrayList<>(links);
+    Collections.shuffle(shuffled, random);
+    return String.join("\n", shuffled);
+  }
+
+  private static List<String> names(final int count, final Random random) {
+    int width = 2;
+    while (Math.pow(26, width) < count) {
+      width++;
+    }
+    final Set<String> names = new LinkedHashSet<>();
+    while (names.size() < count) {
+      final StringBuilder name = new StringBuilder();
+      for (int i = 0; i < width; i++) {
+        name.append((char) ('a' + random.nextInt(26)));
+      }
+      names.add(name.toString());
+    }
+    return new ArrayList<>(names);
+  }
+
+  private static String link(final String computer1, final String computer2, final Random random) {
+    return random.nextBoolean() ? computer1 + "-" + computer2 : computer2 + "-" + computer1;
+  }
+}
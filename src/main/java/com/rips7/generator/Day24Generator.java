@@ -0,0 +1,66 @@
+package com.rips7.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a correctly wired 45-bit ripple-carry adder with random inputs and randomly named internal wires. The
+ * circuit width is fixed by the puzzle, so the input does not grow with the scale.
+ */
+public class Day24Generator implements InputGenerator {
+
+  private static final int BITS = 45;
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final List<String> initial = new ArrayList<>();
+    for (final char wire : new char[] { 'x', 'y' }) {
+      for (int i = 0; i < BITS; i++) {
+        initial.add("%s%02d: %s".formatted(wire, i, random.nextInt(2)));
+      }
+    }
+
+    final Set<String> used = new LinkedHashSet<>();
+    final List<String> gates = new ArrayList<>();
+    gates.add("x00 XOR y00 -> z00");
+    String carry = wire(used, random);
+    gates.add("x00 AND y00 -> %s".formatted(carry));
+    for (int i = 1; i < BITS; i++) {
+      final String sum = wire(used, random);
+      final String bothSet = wire(used, random);
+      final String carried = wire(used, random);
+      final String nextCarry = i == BITS - 1 ? "z%02d".formatted(BITS) : wire(used, random);
+      gates.add("x%02d XOR y%02d -> %s".formatted(i, i, sum));
+      gates.add("x%02d AND y%02d -> %s".formatted(i, i, bothSet));
+      gates.add("%s XOR %s -> z%02d".formatted(sum, carry, i));
+      gates.add("%s AND %s -> %s".formatted(carry, sum, carried));
+      gates.add("%s OR %s -> %s".formatted(bothSet, carried, nextCarry));
+      carry = nextCarry;
+    }
+    Collections.shuffle(gates, random);
+
+    return String.join("\n", initial) + "\n\n" + String.join("\n", gates);
+  }
+
+  /**
+   * Creates a new wire name of three lowercase letters that does not clash with the input and output wires
+   */
+  private static String wire(final Set<String> used, final Random random) {
+    while (true) {
+      final String name = "%s%s%s".formatted(
+        (char) ('a' + random.nextInt(23)), (char) ('a' + random.nextInt(26)), (char) ('a' + random.nextInt(26)));
+      if (used.add(name)) {
+        return name;
+      }
+    }
+  }
+
+  @Override
+  public boolean isScalable() {
+    return false;
+  }
+}
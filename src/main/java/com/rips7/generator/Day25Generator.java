@@ -0,0 +1,28 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates 5x7 lock and key schematics with random pin heights of 0 to 5
+ */
+public class Day25Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 500 * scale)
+      .mapToObj(i -> schematic(random.nextBoolean(), random))
+      .collect(Collectors.joining("\n\n"));
+  }
+
+  private static String schematic(final boolean lock, final Random random) {
+    final int[] heights = IntStream.range(0, 5).map(i -> random.nextInt(6)).toArray();
+    return IntStream.range(0, 7)
+      .mapToObj(r -> IntStream.range(0, 5)
+        // Locks are filled from the top, keys from the bottom
+        .mapToObj(c -> (lock ? r <= heights[c] : 6 - r <= heights[c]) ? "#" : ".")
+        .collect(Collectors.joining()))
+      .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,34 @@
+package com.rips7.generator;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates reports of 5 to 8 levels that change by 1 to 3 in a single direction, with about half of them having a
+ * single bad level
+ */
+public class Day2Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 1000 * scale)
+      .mapToObj(i -> report(random))
+      .collect(Collectors.joining("\n"));
+  }
+
+  private static String report(final Random random) {
+    final int[] levels = new int[5 + random.nextInt(4)];
+    final int direction = random.nextBoolean() ? 1 : -1;
+    levels[0] = direction > 0 ? 1 + random.nextInt(60) : 40 + random.nextInt(60);
+    for (int i = 1; i < levels.length; i++) {
+      levels[i] = levels[i - 1] + direction * (1 + random.nextInt(3));
+    }
+    if (random.nextBoolean()) {
+      levels[random.nextInt(levels.length)] = 1 + random.nextInt(99);
+    }
+    return IntStream.of(levels)
+      .mapToObj(String::valueOf)
+      .collect(Collectors.joining(" "));
+  }
+}
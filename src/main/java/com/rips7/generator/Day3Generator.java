@@ -0,0 +1,48 @@
+package com.rips7.generator;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates corrupted memory: valid {@code mul(X,Y)}, {@code do()} and {@code don't()} instructions, mixed with
+ * corrupted instructions and noise
+ */
+public class Day3Generator implements InputGenerator {
+
+  private static final List<String> NOISE = List.of(
+    "from()", "what()", "select()", "when()", "how()", "where()", "who()", "why()",
+    "#", "!", "$", "@", "%", "^", "&", "*", "(", ")", "[", "]", "{", "}", "<", ">", "?", "/", ";", ":", "'", "-", "+",
+    "~", ",", " ");
+
+  private static final int LINE_LENGTH = 3300;
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int length = 20_000 * scale;
+    final StringBuilder memory = new StringBuilder(length + 32);
+    int lineStart = 0;
+    while (memory.length() < length) {
+      if (memory.length() - lineStart > LINE_LENGTH) {
+        memory.append('\n');
+        lineStart = memory.length();
+      }
+      final int kind = random.nextInt(20);
+      if (kind < 4) {
+        memory.append("mul(%s,%s)".formatted(1 + random.nextInt(999), 1 + random.nextInt(999)));
+      } else if (kind == 4) {
+        memory.append(random.nextBoolean() ? "do()" : "don't()");
+      } else if (kind == 5) {
+        // Corrupted instructions that must be ignored
+        memory.append(switch (random.nextInt(4)) {
+          case 0 -> "mul(%s*".formatted(random.nextInt(999));
+          case 1 -> "mul ( %s,%s)".formatted(random.nextInt(999), random.nextInt(999));
+          case 2 -> "mul[%s,%s]".formatted(random.nextInt(999), random.nextInt(999));
+          default -> "mul(%s,%s!".formatted(random.nextInt(999), random.nextInt(999));
+        });
+      } else {
+        memory.append(NOISE.get(random.nextInt(NOISE.size())));
+      }
+    }
+    return memory.toString();
+  }
+}
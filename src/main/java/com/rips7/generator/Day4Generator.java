@@ -0,0 +1,26 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.side;
+
+/**
+ * Generates a square word search of the letters {@code X}, {@code M}, {@code A} and {@code S}
+ */
+public class Day4Generator implements InputGenerator {
+
+  private static final char[] LETTERS = { 'X', 'M', 'A', 'S' };
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = side(140, scale);
+    final char[][] grid = new char[side][side];
+    for (final char[] row : grid) {
+      for (int c = 0; c < side; c++) {
+        row[c] = LETTERS[random.nextInt(LETTERS.length)];
+      }
+    }
+    return format(grid);
+  }
+}
@@ -0,0 +1,57 @@
+package com.rips7.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates ordering rules for every pair of 49 pages (so that the rules define a total order), followed by updates of
+ * an odd number of pages. Every other update is in the right order, and the rest are shuffled out of order.
+ */
+public class Day5Generator implements InputGenerator {
+
+  private static final int PAGES = 49;
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    // The position of a page in this list is its place in the total order
+    final List<Integer> order = IntStream.range(11, 100).boxed().collect(Collectors.toCollection(ArrayList::new));
+    Collections.shuffle(order, random);
+    final List<Integer> pages = order.subList(0, PAGES);
+
+    final List<String> rules = new ArrayList<>();
+    for (int i = 0; i < PAGES; i++) {
+      for (int j = i + 1; j < PAGES; j++) {
+        rules.add("%s|%s".formatted(pages.get(i), pages.get(j)));
+      }
+    }
+    Collections.shuffle(rules, random);
+
+    final List<String> updates = IntStream.range(0, 200 * scale)
+      .mapToObj(i -> update(pages, i % 2 == 0, random))
+      .toList();
+
+    return String.join("\n", rules) + "\n\n" + String.join("\n", updates);
+  }
+
+  private static String update(final List<Integer> pages, final boolean inOrder, final Random random) {
+    final List<Integer> indices = IntStream.range(0, PAGES).boxed().collect(Collectors.toCollection(ArrayList::new));
+    Collections.shuffle(indices, random);
+    final List<Integer> picked = new ArrayList<>(indices.subList(0, 5 + 2 * random.nextInt(10)));
+    Collections.sort(picked);
+    if (!inOrder) {
+      // Swapping the first and last pages guarantees the update is out of order, whatever the shuffle does
+      Collections.shuffle(picked, random);
+      if (picked.getFirst() < picked.getLast()) {
+        Collections.swap(picked, 0, picked.size() - 1);
+      }
+    }
+    return picked.stream()
+      .map(pages::get)
+      .map(String::valueOf)
+      .collect(Collectors.joining(","));
+  }
+}
@@ -0,0 +1,64 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.filledGrid;
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.side;
+
+/**
+ * Generates a lab with scattered obstacles and a guard facing up. The guard is placed so that its patrol leaves the
+ * lab, as the puzzle requires.
+ */
+public class Day6Generator implements InputGenerator {
+
+  private static final int[][] DIRECTIONS = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = side(130, scale);
+    while (true) {
+      final char[][] lab = filledGrid(side, side, '.');
+      for (int i = 0; i < side * side / 20; i++) {
+        lab[random.nextInt(side)][random.nextInt(side)] = '#';
+      }
+      for (int attempt = 0; attempt < 100; attempt++) {
+        final int r = random.nextInt(side);
+        final int c = random.nextInt(side);
+        if (lab[r][c] == '.' && leaves(lab, r, c)) {
+          lab[r][c] = '^';
+          return format(lab);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a guard starting at the given position facing up leaves the lab, instead of walking in a loop
+   */
+  private static boolean leaves(final char[][] lab, final int startRow, final int startCol) {
+    final int side = lab.length;
+    final boolean[] seen = new boolean[side * side * DIRECTIONS.length];
+    int r = startRow;
+    int c = startCol;
+    int dir = 0;
+    while (true) {
+      final int state = (r * side + c) * DIRECTIONS.length + dir;
+      if (seen[state]) {
+        return false;
+      }
+      seen[state] = true;
+      final int nr = r + DIRECTIONS[dir][0];
+      final int nc = c + DIRECTIONS[dir][1];
+      if (nr < 0 || nr >= side || nc < 0 || nc >= side) {
+        return true;
+      }
+      if (lab[nr][nc] == '#') {
+        dir = (dir + 1) % DIRECTIONS.length;
+      } else {
+        r = nr;
+        c = nc;
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.rips7.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates calibration equations of 2 to 12 operands, with at most 18 digits in total. About two thirds of the test values come from evaluating the
+ * operands with random {@code +}, {@code *} and {@code ||} operators, and the rest are random.
+ */
+public class Day7Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    return IntStream.range(0, 850 * scale)
+      .mapToObj(i -> equation(random))
+      .collect(Collectors.joining("\n"));
+  }
+
+  private static String equation(final Random random) {
+    // At most 18 digits in total, so that any combination of operators fits in a long
+    final int count = 2 + random.nextInt(11);
+    final List<Long> operands = new ArrayList<>();
+    int digits = 0;
+    while (operands.size() < count) {
+      final long operand = 1 + random.nextInt(random.nextBoolean() ? 9 : 999);
+      digits += String.valueOf(operand).length();
+      if (digits > 18) {
+        break;
+      }
+      operands.add(operand);
+    }
+    long result = operands.getFirst();
+    for (final long operand : operands.subList(1, operands.size())) {
+      result = switch (random.nextInt(3)) {
+        case 0 -> result + operand;
+        case 1 -> result * operand;
+        default -> Long.parseLong("%s%s".formatted(result, operand));
+      };
+    }
+    if (random.nextInt(3) == 0) {
+      result = 1 + random.nextLong(Math.max(2, result));
+    }
+    return "%s: %s".formatted(result, operands.stream()
+      .map(String::valueOf)
+      .collect(Collectors.joining(" ")));
+  }
+}
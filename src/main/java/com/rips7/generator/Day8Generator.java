@@ -0,0 +1,25 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+import static com.rips7.generator.InputGenerators.filledGrid;
+import static com.rips7.generator.InputGenerators.format;
+import static com.rips7.generator.InputGenerators.side;
+
+/**
+ * Generates a square map of antennas, where each antenna has one of the 62 alphanumeric frequencies
+ */
+public class Day8Generator implements InputGenerator {
+
+  private static final String FREQUENCIES = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    final int side = side(50, scale);
+    final char[][] map = filledGrid(side, side, '.');
+    for (int i = 0; i < side * side / 12; i++) {
+      map[random.nextInt(side)][random.nextInt(side)] = FREQUENCIES.charAt(random.nextInt(FREQUENCIES.length()));
+    }
+    return format(map);
+  }
+}
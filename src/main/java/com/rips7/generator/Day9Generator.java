@@ -0,0 +1,20 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+/**
+ * Generates a dense disk map of alternating file sizes (1 to 9) and free space sizes (0 to 9)
+ */
+public class Day9Generator implements InputGenerator {
+
+  @Override
+  public String generate(final int scale, final Random random) {
+    // The map starts and ends with a file
+    final int length = 20_000 * scale - 1;
+    final StringBuilder map = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      map.append(i % 2 == 0 ? 1 + random.nextInt(9) : random.nextInt(10));
+    }
+    return map.toString();
+  }
+}
@@ -0,0 +1,45 @@
+package com.rips7.generator;
+
+import java.util.Random;
+
+/**
+ * Generates valid synthetic inputs for a day, so that the day can be run on inputs larger than the bundled one. A scale
+ * of 1 produces an input of about the size of the bundled one, and the size grows linearly with the scale (for grids,
+ * the area grows linearly, so each side grows with the square root of the scale). The same scale and seed always
+ * produce the same input.
+ */
+public interface InputGenerator {
+
+  /**
+   * Generates an input
+   *
+   * @param scale  the scale factor (at least 1)
+   * @param random the source of randomness
+   * @return the input
+   */
+  String generate(int scale, Random random);
+
+  /**
+   * Generates an input
+   *
+   * @param scale the scale factor (at least 1)
+   * @param seed  the seed
+   * @return the input
+   */
+  default String generate(final int scale, final long seed) {
+    if (scale < 1) {
+      throw new IllegalArgumentException("Scale must be at least 1, got %s".formatted(scale));
+    }
+    return generate(scale, new Random(seed));
+  }
+
+  /**
+   * Whether the size of the input follows the scale. Days whose input size is fixed by the puzzle (e.g. a fixed grid or
+   * circuit) produce the same size of input for every scale.
+   *
+   * @return true if the input grows with the scale, false otherwise
+   */
+  default boolean isScalable() {
+    return true;
+  }
+}
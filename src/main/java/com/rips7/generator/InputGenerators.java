@@ -0,0 +1,138 @@
+package com.rips7.generator;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The registry of {@link InputGenerator}s, keyed by the name of the day, along with helpers shared by the generators
+ */
+public final class InputGenerators {
+
+  private static final Map<String, Supplier<InputGenerator>> GENERATORS = Map.ofEntries(
+    Map.entry("Day1", Day1Generator::new),
+    Map.entry("Day2", Day2Generator::new),
+    Map.entry("Day3", Day3Generator::new),
+    Map.entry("Day4", Day4Generator::new),
+    Map.entry("Day5", Day5Generator::new),
+    Map.entry("Day6", Day6Generator::new),
+    Map.entry("Day7", Day7Generator::new),
+    Map.entry("Day8", Day8Generator::new),
+    Map.entry("Day9", Day9Generator::new),
+    Map.entry("Day10", Day10Generator::new),
+    Map.entry("Day11", Day11Generator::new),
+    Map.entry("Day12", Day12Generator::new),
+    Map.entry("Day13", Day13Generator::new),
+    Map.entry("Day14", Day14Generator::new),
+    Map.entry("Day15", Day15Generator::new),
+    Map.entry("Day16", Day16Generator::new),
+    Map.entry("Day17", Day17Generator::new),
+    Map.entry("Day18", Day18Generator::new),
+    Map.entry("Day19", Day19Generator::new),
+    Map.entry("Day20", Day20Generator::new),
+    Map.entry("Day21", Day21Generator::new),
+    Map.entry("Day22", Day22Generator::new),
+    Map.entry("Day23", Day23Generator::new),
+    Map.entry("Day24", Day24Generator::new),
+    Map.entry("Day25", Day25Generator::new));
+
+  private InputGenerators() { }
+
+  /**
+   * Finds the generator of the given day
+   *
+   * @param day the name of the day (e.g. {@code Day9})
+   * @return the {@link InputGenerator}, or empty if the day has no generator
+   */
+  public static Optional<InputGenerator> forDay(final String day) {
+    return Optional.ofNullable(GENERATORS.get(day)).map(Supplier::get);
+  }
+
+  /**
+   * Scales the side of a square grid, so that its area grows linearly with the scale
+   *
+   * @param baseSide the side for scale 1
+   * @param scale    the scale
+   * @return the scaled side
+   */
+  static int side(final int baseSide, final int scale) {
+    return (int) Math.round(baseSide * Math.sqrt(scale));
+  }
+
+  /**
+   * Scales the side of a square grid like {@link #side(int, int)}, rounding to an odd number (as needed for mazes)
+   *
+   * @param baseSide the side for scale 1
+   * @param scale    the scale
+   * @return the scaled odd side
+   */
+  static int oddSide(final int baseSide, final int scale) {
+    return side(baseSide, scale) | 1;
+  }
+
+  /**
+   * Creates a grid filled with the given character
+   *
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @param fill the character to fill the grid with
+   * @return the grid
+   */
+  static char[][] filledGrid(final int rows, final int cols, final char fill) {
+    final char[][] grid = new char[rows][cols];
+    for (final char[] row : grid) {
+      Arrays.fill(row, fill);
+    }
+    return grid;
+  }
+
+  /**
+   * Formats a grid as lines
+   *
+   * @param grid the grid
+   * @return the grid, one row per line
+   */
+  static String format(final char[][] grid) {
+    return Arrays.stream(grid)
+      .map(String::new)
+      .collect(Collectors.joining("\n"));
+  }
+
+  /**
+   * Carves a perfect maze (a spanning tree of the cells at odd coordinates) out of a grid of walls, using a randomised
+   * depth-first search from the bottom-left cell
+   *
+   * @param rows   the number of rows (odd)
+   * @param cols   the number of columns (odd)
+   * @param random the source of randomness
+   * @return the maze, with {@code '#'} for walls and {@code '.'} for open cells
+   */
+  static char[][] maze(final int rows, final int cols, final Random random) {
+    final char[][] grid = filledGrid(rows, cols, '#');
+    final int[][] offsets = { { -2, 0 }, { 0, 2 }, { 2, 0 }, { 0, -2 } };
+    final Deque<int[]> stack = new ArrayDeque<>();
+    stack.push(new int[] { rows - 2, 1 });
+    grid[rows - 2][1] = '.';
+    while (!stack.isEmpty()) {
+      final int[] current = stack.peek();
+      final int[][] candidates = Arrays.stream(offsets)
+        .map(o -> new int[] { current[0] + o[0], current[1] + o[1] })
+        .filter(n -> n[0] > 0 && n[0] < rows - 1 && n[1] > 0 && n[1] < cols - 1 && grid[n[0]][n[1]] == '#')
+        .toArray(int[][]::new);
+      if (candidates.length == 0) {
+        stack.pop();
+        continue;
+      }
+      final int[] next = candidates[random.nextInt(candidates.length)];
+      grid[(current[0] + next[0]) / 2][(current[1] + next[1]) / 2] = '.';
+      grid[next[0]][next[1]] = '.';
+      stack.push(next);
+    }
+    return grid;
+  }
+}
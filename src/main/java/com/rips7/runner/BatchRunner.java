@@ -0,0 +1,352 @@
+package com.rips7.runner;
+
+import com.rips7.day.Day;
+import com.rips7.day.ParsedDay;
+import com.rips7.util.Util;
+import com.rips7.util.Util.TimedResult;
+import com.rips7.util.Util.TimingStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Solves many inputs of the same {@link Day} concurrently. Inputs are pulled from a stream only as fast as they are
+ * solved: at most {@code parallelism + queueCapacity} inputs are in flight (queued, solving, or solved and waiting for
+ * the inputs before them), so that a huge directory or an endless stream does not fill the heap. Results are handed
+ * out in input order, as soon as the result and all the results before it are ready.
+ */
+public final class BatchRunner implements AutoCloseable {
+
+  private final Day<?> day;
+  private final Set<Integer> parts;
+  private final int parallelism;
+  private final int queueCapacity;
+  private final ExecutorService executor;
+
+  /**
+   * An input of a batch. The content is loaded by the solving thread, so that loading is spread across the threads.
+   *
+   * @param name   the name of the input (e.g. the file name)
+   * @param loader loads the content of the input
+   */
+  public record BatchInput(String name, Supplier<String> loader) {
+
+    /**
+     * Creates an input from a file
+     *
+     * @param path the path of the file
+     * @return the {@link BatchInput}
+     */
+    public static BatchInput of(final Path path) {
+      return new BatchInput(path.toString(), () -> {
+        try {
+          return Files.readString(path);
+        } catch (final IOException e) {
+          throw new UncheckedIOException("Cannot read input file '%s'".formatted(path), e);
+        }
+      });
+    }
+
+    /**
+     * Lists the regular files of a directory, sorted by name
+     *
+     * @param directory the directory
+     * @return the stream of {@link BatchInput}s
+     */
+    public static Stream<BatchInput> ofDirectory(final Path directory) {
+      try (Stream<Path> files = Files.list(directory)) {
+        return files
+          .filter(Files::isRegularFile)
+          .sorted()
+          .toList()
+          .stream()
+          .map(BatchInput::of);
+      } catch (final IOException e) {
+        throw new UncheckedIOException("Cannot list input directory '%s'".formatted(directory), e);
+      }
+    }
+  }
+
+  /**
+   * The result of an input
+   *
+   * @param index        the position of the input in the batch
+   * @param name         the name of the input
+   * @param part1        the timed result of part 1, or {@code null} if it did not run or failed
+   * @param part2        the timed result of part 2, or {@code null} if it did not run or failed
+   * @param latencyNanos the time to load, parse and solve the input
+   * @param error        the failure, or {@code null} if the input was solved
+   */
+  public record BatchResult(long index, String name, TimedResult<?> part1, TimedResult<?> part2, long latencyNanos,
+                            Throwable error) {
+
+    /**
+     * Formats the result as a tab-separated line of the name and the answers
+     *
+     * @return the line
+     */
+    public String toLine() {
+      if (error != null) {
+        return "%s\tERROR\t%s".formatted(name, error);
+      }
+      return Stream.of(part1, part2)
+        .filter(part -> part != null)
+        .map(part -> String.valueOf(part.res()))
+        .reduce(name, (line, answer) -> line + "\t" + answer);
+    }
+  }
+
+  /**
+   * The aggregate measurements of a batch
+   *
+   * @param inputs    the number of inputs
+   * @param failures  the number of inputs that failed
+   * @param wallNanos the wall time of the whole batch
+   * @param latency   the statistics of the per-input latencies, over a uniform sample of at most 10000 inputs, or
+   *                  {@code null} for an empty batch
+   */
+  public record BatchSummary(long inputs, long failures, long wallNanos, TimingStats latency) {
+
+    /**
+     * @return the number of inputs solved per second
+     */
+    public double throughput() {
+      return wallNanos == 0 ? 0 : inputs * 1_000_000_000.0 / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "%s inputs (%s failed) in %s: %.1f inputs/sec%s".formatted(inputs, failures,
+        Util.formatDuration(wallNanos), throughput(),
+        latency == null ? "" : "\nLatency per input: %s".formatted(latency));
+    }
+  }
+
+  private BatchRunner(final Day<?> day, final Set<Integer> parts, final int parallelism, final int queueCapacity) {
+    if (parallelism < 1 || queueCapacity < 0) {
+      throw new IllegalArgumentException("Invalid parallelism %s / queue capacity %s".formatted(
+        parallelism, queueCapacity));
+    }
+    this.day = day;
+    this.parts = Set.copyOf(parts);
+    this.parallelism = parallelism;
+    this.queueCapacity = queueCapacity;
+    this.executor = Executors.newFixedThreadPool(parallelism);
+  }
+
+  /**
+   * Creates a batch runner
+   *
+   * @param day           the day to solve the inputs with
+   * @param parts         the parts to solve (1 and/or 2)
+   * @param parallelism   the number of solving threads
+   * @param queueCapacity the number of inputs that may wait for a thread, on top of the ones being solved
+   * @return the {@link BatchRunner}
+   */
+  public static BatchRunner of(final Day<?> day, final Set<Integer> parts, final int parallelism,
+                               final int queueCapacity) {
+    return new BatchRunner(day, parts, parallelism, queueCapacity);
+  }
+
+  /**
+   * Solves all the inputs. The calling thread pulls the inputs, and blocks while too many are in flight.
+   *
+   * @param inputs   the inputs
+   * @param onResult the callback for each result, called in input order (one call at a time)
+   * @return the {@link BatchSummary}
+   * @throws RuntimeException if the callback failed, after all the results have been handed out
+   */
+  public BatchSummary run(final Stream<BatchInput> inputs, final Consumer<BatchResult> onResult) {
+    final long start = System.nanoTime();
+    final OrderedEmitter emitter = new OrderedEmitter(parallelism + queueCapacity, onResult);
+    long count = 0;
+    final Iterator<BatchInput> iterator = inputs.iterator();
+    while (iterator.hasNext()) {
+      final BatchInput input = iterator.next();
+      final long index = count++;
+      emitter.acquire();
+      executor.execute(() -> emitter.complete(solve(index, input)));
+    }
+    emitter.awaitAll(count);
+    return new BatchSummary(count, emitter.failures, System.nanoTime() - start, emitter.latencyStats());
+  }
+
+  private BatchResult solve(final long index, final BatchInput input) {
+    final long start = System.nanoTime();
+    try {
+      final String content = input.loader().get();
+      TimedResult<?> part1 = null;
+      TimedResult<?> part2 = null;
+      if (day instanceof ParsedDay<?, ?> parsedDay) {
+        final ParsedDay<Object, ?> typed = cast(parsedDay);
+        final Object model = typed.parse(content);
+        part1 = parts.contains(1) ? Util.time(() -> typed.part1(model)) : null;
+        part2 = parts.contains(2) ? Util.time(() -> typed.part2(model)) : null;
+      } else {
+        part1 = parts.contains(1) ? Util.time(() -> day.part1(content)) : null;
+        part2 = parts.contains(2) ? Util.time(() -> day.part2(content)) : null;
+      }
+      return new BatchResult(index, input.name(), part1, part2, System.nanoTime() - start, null);
+    } catch (final Throwable e) {
+      // Errors too (e.g. a StackOverflowError of a deep recursion), or the input would never be handed out
+      return new BatchResult(index, input.name(), null, null, System.nanoTime() - start, e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ParsedDay<Object, ?> cast(final ParsedDay<?, ?> day) {
+    return (ParsedDay<Object, ?>) day;
+  }
+
+  @Override
+  public void close() {
+    executor.close();
+  }
+
+  /**
+   * Hands out the results in input order, and bounds the number of inputs in flight. A permit is taken when an input
+   * is submitted, and given back when its result is handed out, so that the results that wait for slower inputs
+   * before them also count against the bound.
+   * <p>
+   * The callback runs outside of the emitter's lock: the solving threads only move their results to a queue of ready
+   * results, and one of them at a time drains the queue, so that a slow callback holds up that thread only.
+   * <p>
+   * A failing callback does not stop the hand-out: the failure is kept, the remaining results are still handed out,
+   * and {@link #awaitAll} throws it once they have been.
+   */
+  private static final class OrderedEmitter {
+
+    /**
+     * The number of latencies kept for the percentiles, so that an endless batch does not keep one per input
+     */
+    private static final int LATENCY_SAMPLES = 10_000;
+
+    private final Semaphore inFlight;
+    private final Consumer<BatchResult> onResult;
+    private final Map<Long, BatchResult> pending = new HashMap<>();
+    private final Queue<BatchResult> ready = new ArrayDeque<>();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private final SplittableRandom random = new SplittableRandom(0);
+    private long next;
+    private long handedOut;
+    private long failures;
+    private boolean draining;
+    private RuntimeException callbackFailure;
+
+    private OrderedEmitter(final int maxInFlight, final Consumer<BatchResult> onResult) {
+      this.inFlight = new Semaphore(maxInFlight);
+      this.onResult = onResult;
+    }
+
+    private void acquire() {
+      inFlight.acquireUninterruptibly();
+    }
+
+    private void complete(final BatchResult result) {
+      synchronized (this) {
+        pending.put(result.index(), result);
+        BatchResult inOrder;
+        while ((inOrder = pending.remove(next)) != null) {
+          sampleLatency(next, inOrder.latencyNanos());
+          next++;
+          if (inOrder.error() != null) {
+            failures++;
+          }
+          ready.add(inOrder);
+        }
+        if (draining) {
+          // The draining thread hands out the new results as well
+          return;
+        }
+        draining = true;
+      }
+      drain();
+    }
+
+    /**
+     * Hands out the ready results, one at a time and in order, until there are none left
+     */
+    private void drain() {
+      BatchResult result = null;
+      while (true) {
+        synchronized (this) {
+          if (result != null) {
+            handedOut++;
+          }
+          result = ready.poll();
+          if (result == null) {
+            draining = false;
+            notifyAll();
+            return;
+          }
+        }
+        try {
+          onResult.accept(result);
+        } catch (final Throwable e) {
+          onCallbackFailure(result, e);
+        } finally {
+          inFlight.release();
+        }
+      }
+    }
+
+    private synchronized void onCallbackFailure(final BatchResult result, final Throwable e) {
+      if (callbackFailure == null) {
+        callbackFailure = new RuntimeException("Handling the result of %s failed".formatted(result.name()), e);
+      } else {
+        callbackFailure.addSuppressed(e);
+      }
+    }
+
+    /**
+     * Keeps a uniform random sample of the latencies (reservoir sampling), in a fixed amount of memory
+     *
+     * @param index        the index of the input
+     * @param latencyNanos the latency of the input
+     */
+    private void sampleLatency(final long index, final long latencyNanos) {
+      if (index < LATENCY_SAMPLES) {
+        latencies[(int) index] = latencyNanos;
+        return;
+      }
+      final long slot = random.nextLong(index + 1);
+      if (slot < LATENCY_SAMPLES) {
+        latencies[(int) slot] = latencyNanos;
+      }
+    }
+
+    private synchronized TimingStats latencyStats() {
+      return next == 0 ? null : TimingStats.of(Arrays.copyOf(latencies, (int) Math.min(next, LATENCY_SAMPLES)));
+    }
+
+    private synchronized void awaitAll(final long count) {
+      while (handedOut < count) {
+        try {
+          wait();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Interrupted while waiting for the batch", e);
+        }
+      }
+      if (callbackFailure != null) {
+        throw callbackFailure;
+      }
+    }
+  }
+}
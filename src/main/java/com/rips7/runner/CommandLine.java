@@ -0,0 +1,217 @@
+package com.rips7.runner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * The parsed command-line arguments of {@link com.rips7.Main}
+ *
+ * @param days       the numbers of the days to run, or empty for all days
+ * @param options    the {@link RunOptions} for each day
+ * @param stats      whether to print the timing statistics of repeated runs
+ * @param allocation whether to print the allocation and GC usage of each part
+ * @param metrics    whether to collect and print the {@link com.rips7.util.metrics.Metrics} of each part
+ * @param parallel   whether to run the days and parts in parallel
+ * @param report     the path to write a {@link PerformanceReport} to, or {@code null}
+ * @param compare    the path of a baseline {@link PerformanceReport} to compare against, or {@code null}
+ * @param threshold  the allowed slowdown in percent when comparing
+ * @param batch      the directory of inputs to solve in batch, {@code -} to read input paths from the standard input,
+ *                   or {@code null} to run the days normally
+ * @param threads    the number of solving threads in batch mode
+ * @param queue      the number of inputs that may wait for a thread in batch mode
+ * @param jfr        the path to dump a Flight Recorder recording of the run to, or {@code null}
+ * @param help       whether to print the usage and exit
+ */
+public record CommandLine(Set<Integer> days, RunOptions options, boolean stats, boolean allocation, boolean metrics,
+                          boolean parallel, Path report, Path compare, double threshold, String batch, int threads,
+                          int queue, Path jfr, boolean help) {
+
+  /**
+   * The warmups and measured runs of each part with {@code --stats}, unless given explicitly
+   */
+  private static final int STATS_WARMUPS = 3;
+  private static final int STATS_ITERATIONS = 10;
+
+  private static final Pattern DAY = Pattern.compile("(?i)(?:day)?(\\d+)");
+  private static final Pattern DAY_RANGE = Pattern.compile("(?i)(?:day)?(\\d+)-(?:day)?(\\d+)");
+
+  public static final String USAGE = """
+    Usage: Main [options] [day...]
+      day...                      the days to run, as numbers or names (e.g. 5 or Day5), default all
+      -d, --days <list>           comma-separated days or ranges (e.g. 1,5,9-12)
+      -p, --part <1|2>            run only the given part
+      -r, --repeat <n>            measured runs of each part (default 1, or %s with --stats)
+      -w, --warmup <n>            unmeasured runs of each part before measuring (default 0, or %s with --stats)
+      -i, --input <day>=<file>    read the input of a day from a file instead of the bundled one (repeatable)
+          --stats, --no-stats     print the full timing statistics of repeated runs (default off)
+          --alloc, --no-alloc     print the bytes allocated by the solving thread of each part, and its GC
+                                  activity in sequential runs (default on)
+          --metrics               count the work of each part (nodes expanded, cache hits...) and print it
+          --parallel, --no-parallel
+                                  run days and parts in parallel (default on, off with --report/--compare)
+          --report <file>         write a performance report (CSV for .csv files, JSON Lines otherwise), and
+                                  order the parts longest-first by the one already there
+          --compare <file>        compare against a previous report, and exit with code 1 on any regression:
+                                  a slowdown, a part that now fails or times out, or a different answer
+          --threshold <percent>   the allowed slowdown for --compare (default 10)
+          --timeout <seconds>     give up on a part after this time and report it as TIMEOUT (default no limit)
+          --batch <dir | ->       solve every file of a directory (or every file path read from the standard
+                                  input) with a single day, and print the answers in input order
+          --threads <n>           the solving threads of --batch (default one per available processor)
+          --queue <n>             the inputs that may wait for a thread in --batch (default twice the threads)
+          --jfr <file>            record the run with Flight Recorder, with events for each day, part and search
+      -h, --help                  print this help
+    """.formatted(STATS_ITERATIONS, STATS_WARMUPS);
+
+  /**
+   * Parses the command-line arguments
+   *
+   * @param args the arguments
+   * @return the {@link CommandLine}
+   * @throws IllegalArgumentException if an argument is unknown or invalid
+   */
+  public static CommandLine parse(final String[] args) {
+    final Set<Integer> days = new TreeSet<>();
+    final Set<Integer> parts = new TreeSet<>();
+    final Map<String, Path> inputs = new HashMap<>();
+    Integer repeat = null;
+    Integer warmup = null;
+    boolean stats = false;
+    boolean allocation = true;
+    boolean metrics = false;
+    Boolean parallel = null;
+    Path report = null;
+    Path compare = null;
+    double threshold = 10;
+    Duration timeout = null;
+    String batch = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    Integer queue = null;
+    Path jfr = null;
+    boolean help = false;
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "-d", "--days" -> {
+          for (final String day : value(args, ++i).split(",")) {
+            days.addAll(parseDays(day));
+          }
+        }
+        case "-p", "--part" -> {
+          final int part = parseInt(args, ++i);
+          if (part != 1 && part != 2) {
+            throw new IllegalArgumentException("Part must be 1 or 2, got %s".formatted(part));
+          }
+          parts.add(part);
+        }
+        case "-r", "--repeat" -> repeat = parseInt(args, ++i);
+        case "-w", "--warmup" -> warmup = parseInt(args, ++i);
+        case "-i", "--input" -> {
+          final String value = value(args, ++i);
+          final int separator = value.indexOf('=');
+          if (separator < 0) {
+            throw new IllegalArgumentException("Expected <day>=<file>, got %s".formatted(value));
+          }
+          final int day = parseDay(value.substring(0, separator));
+          final Path input = Path.of(value.substring(separator + 1));
+          if (!Files.isReadable(input)) {
+            throw new IllegalArgumentException("Cannot read input file %s".formatted(input));
+          }
+          days.add(day);
+          inputs.put("Day%s".formatted(day), input);
+        }
+        case "--stats" -> stats = true;
+        case "--no-stats" -> stats = false;
+        case "--alloc" -> allocation = true;
+        case "--no-alloc" -> allocation = false;
+        case "--metrics" -> metrics = true;
+        case "--parallel" -> parallel = true;
+        case "--no-parallel" -> parallel = false;
+        case "--report" -> report = Path.of(value(args, ++i));
+        case "--compare" -> compare = Path.of(value(args, ++i));
+        case "--threshold" -> threshold = Double.parseDouble(value(args, ++i));
+        case "--timeout" -> {
+          final String value = value(args, ++i);
+          try {
+            timeout = Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+          } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Expected seconds after --timeout, got %s".formatted(value));
+          }
+        }
+        case "--batch" -> batch = value(args, ++i);
+        case "--threads" -> threads = parseInt(args, ++i);
+        case "--queue" -> queue = parseInt(args, ++i);
+        case "--jfr" -> jfr = Path.of(value(args, ++i));
+        case "-h", "--help" -> help = true;
+        default -> {
+          if (args[i].startsWith("-")) {
+            throw new IllegalArgumentException("Unknown argument %s".formatted(args[i]));
+          }
+          days.addAll(parseDays(args[i]));
+        }
+      }
+    }
+
+    if (batch != null && days.size() != 1) {
+      throw new IllegalArgumentException("--batch needs exactly one day, got %s".formatted(days));
+    }
+    if (batch != null && !batch.equals("-") && !Files.isDirectory(Path.of(batch))) {
+      throw new IllegalArgumentException("Not a directory: %s".formatted(batch));
+    }
+
+    final RunOptions options = new RunOptions(
+      warmup != null ? warmup : stats ? STATS_WARMUPS : 0,
+      repeat != null ? repeat : stats ? STATS_ITERATIONS : 1,
+      parts.isEmpty() ? Set.of(1, 2) : parts,
+      inputs,
+      timeout);
+    // Measurements for reports are only comparable when nothing else runs at the same time
+    final boolean measuring = report != null || compare != null;
+    return new CommandLine(days, options, stats, allocation, metrics, parallel != null ? parallel : !measuring, report,
+      compare, threshold, batch, threads, queue != null ? queue : 2 * threads, jfr, help);
+  }
+
+  private static List<Integer> parseDays(final String value) {
+    final Matcher range = DAY_RANGE.matcher(value);
+    if (range.matches()) {
+      return IntStream.rangeClosed(parseDay(range.group(1)), parseDay(range.group(2))).boxed().toList();
+    }
+    return List.of(parseDay(value));
+  }
+
+  private static int parseDay(final String value) {
+    final Matcher day = DAY.matcher(value);
+    if (!day.matches()) {
+      throw new IllegalArgumentException("Invalid day %s".formatted(value));
+    }
+    final int number = Integer.parseInt(day.group(1));
+    if (number < 1 || number > 25) {
+      throw new IllegalArgumentException("Days are numbered 1 to 25, got %s".formatted(value));
+    }
+    return number;
+  }
+
+  private static int parseInt(final String[] args, final int i) {
+    try {
+      return Integer.parseInt(value(args, i));
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("Expected a number after %s, got %s".formatted(args[i - 1], args[i]));
+    }
+  }
+
+  private static String value(final String[] args, final int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException("Missing value after %s".formatted(args[i - 1]));
+    }
+    return args[i];
+  }
+}
@@ -0,0 +1,79 @@
+package com.rips7.runner;
+
+import com.rips7.util.Util;
+import com.rips7.util.Util.TimedResult;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static com.rips7.util.Util.printColor;
+
+/**
+ * The timed results of both parts of a day
+ *
+ * @param name  the name of the day
+ * @param parse the timed result of parsing the input once for both parts, or {@code null} if each part parses its own
+ * @param part1 the timed result of part 1, or {@code null} if the part did not run
+ * @param part2 the timed result of part 2, or {@code null} if the part did not run
+ */
+public record DayResult(String name, TimedResult<?> parse, TimedResult<?> part1, TimedResult<?> part2) {
+
+  /**
+   * Prints the results in the same layout as a sequential run of the day, with the timing statistics and the
+   * {@link com.rips7.util.ResourceUsage} of each part, and its {@link com.rips7.util.metrics.Metrics} when enabled
+   */
+  public void print() {
+    print(true, true);
+  }
+
+  /**
+   * Prints the results in the same layout as a sequential run of the day. Parts that did not run are skipped. Metrics
+   * are only collected when enabled, so they are printed whenever a part has any.
+   *
+   * @param stats whether to print the timing statistics of repeated runs, instead of only the median
+   * @param usage whether to print the {@link com.rips7.util.ResourceUsage} next to the timing
+   */
+  public void print(final boolean stats, final boolean usage) {
+    System.out.printf("----- %s -----%n", name);
+    if (parse != null) {
+      System.out.print("Parse: ");
+      printTiming(parse, stats, usage);
+    }
+    if (part1 != null) {
+      System.out.print("Part 1: ");
+      printAnswer(part1);
+      printTiming(part1, stats, usage);
+    }
+    if (part2 != null) {
+      System.out.print("Part 2: ");
+      printAnswer(part2);
+      printTiming(part2, stats, usage);
+    }
+    System.out.println("----------------");
+  }
+
+  /**
+   * @return true if the process-wide resources of every part that ran were measured, false if any overlapped with
+   * other parts, e.g. in a parallel run
+   */
+  public boolean isProcessWideMeasured() {
+    return Stream.of(parse, part1, part2)
+      .filter(Objects::nonNull)
+      .allMatch(result -> result.usage().isProcessWideMeasured());
+  }
+
+  private static void printAnswer(final TimedResult<?> result) {
+    printColor("%s ".formatted(result.res()), result.isTimeout() || result.isError() ? Util.AnsiColor.RED : Util.AnsiColor.GREEN);
+  }
+
+  private static void printTiming(final TimedResult<?> result, final boolean stats, final boolean usage) {
+    printColor("(%s)".formatted(result.timeInfo(stats)), Util.AnsiColor.YELLOW);
+    if (usage && !result.isTimeout() && !result.isError()) {
+      printColor(" [%s]".formatted(result.usage()), Util.AnsiColor.CYAN);
+    }
+    if (!result.metrics().isEmpty()) {
+      printColor(" {%s}".formatted(result.metrics()), Util.AnsiColor.PURPLE);
+    }
+    System.out.println();
+  }
+}
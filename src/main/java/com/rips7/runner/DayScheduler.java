@@ -0,0 +1,360 @@
+package com.rips7.runner;
+
+import com.rips7.day.Day;
+import com.rips7.day.ParsedDay;
+import com.rips7.util.Util.TimedResult;
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.jfr.DayEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs days, and both parts within each day, concurrently on an executor. Parts are run longest-job-first, based on
+ * the time they took in the {@link PerformanceReport} of a previous run, or in the bundled
+ * {@link PerformanceReport#baseline() baseline} for parts that it does not cover, so that the total wall time
+ * approaches the time of the slowest part. Results are gathered and reported in the order of the given days.
+ * <p>
+ * Work is not handed to the executor directly, but queued by its expected cost, and every task the executor runs takes
+ * the most expensive work queued at that time. The parts of a {@link ParsedDay}, which are only ready once the input is
+ * parsed, thereby still run before cheaper parts that were queued earlier.
+ * <p>
+ * Each day is isolated from the others: a part that fails is reported as an {@link TimedResult#error(Throwable) ERROR}
+ * result, and the other parts and days keep running.
+ * <p>
+ * With a {@link RunOptions#timeout()}, a part that is still running when its budget runs out is reported as
+ * {@link TimedResult#timeout(long) TIMEOUT}, and its {@link CancellationToken} is cancelled so that it stops at its next
+ * checkpoint and frees its thread for the next parts.
+ * <p>
+ * Each day is recorded as a {@link DayEvent} for Flight Recorder, from the start of its first job to the end of its
+ * last part.
+ */
+public final class DayScheduler implements AutoCloseable {
+
+  private final ExecutorService executor;
+  private final PriorityBlockingQueue<Dispatch> dispatches = new PriorityBlockingQueue<>();
+  private final AtomicLong dispatched = new AtomicLong();
+
+  private DayScheduler(final ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a scheduler backed by a new {@link ForkJoinPool} with one thread per available processor
+   *
+   * @return the {@link DayScheduler}
+   */
+  public static DayScheduler forkJoin() {
+    return forkJoin(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a scheduler backed by a new {@link ForkJoinPool} with the given parallelism
+   *
+   * @param parallelism the number of threads
+   * @return the {@link DayScheduler}
+   */
+  public static DayScheduler forkJoin(final int parallelism) {
+    return new DayScheduler(new ForkJoinPool(parallelism));
+  }
+
+  /**
+   * Creates a scheduler that runs a single part at a time, so that measurements do not interfere with each other. This
+   * is a plain single-thread executor rather than a {@link ForkJoinPool} of parallelism 1, which would add compensation
+   * threads, and start other parts, whenever a part joins on work it forked.
+   *
+   * @return the {@link DayScheduler}
+   */
+  public static DayScheduler sequential() {
+    return new DayScheduler(Executors.newSingleThreadExecutor());
+  }
+
+  /**
+   * Creates a scheduler that runs every part on its own virtual thread
+   *
+   * @return the {@link DayScheduler}
+   */
+  public static DayScheduler virtualThreads() {
+    return new DayScheduler(Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  /**
+   * Creates a scheduler that runs on the given executor. The executor is shut down when the scheduler is closed.
+   *
+   * @param executor the executor
+   * @return the {@link DayScheduler}
+   */
+  public static DayScheduler of(final ExecutorService executor) {
+    return new DayScheduler(executor);
+  }
+
+  /**
+   * Runs all the given days with the default {@link RunOptions}
+   *
+   * @param days     the days to run
+   * @param onResult the callback for each result
+   * @return the list of results, in the order of the days
+   */
+  public List<DayResult> run(final List<Day<?>> days, final Consumer<DayResult> onResult) {
+    return run(days, RunOptions.DEFAULT, null, onResult);
+  }
+
+  /**
+   * Runs all the given days, and reports each {@link DayResult} in the order of the days, as soon as the day and all
+   * the days before it have finished
+   *
+   * @param days     the days to run
+   * @param options  the {@link RunOptions} for each part
+   * @param previous the report of a previous run, to order the parts by the time they took, or {@code null} to order
+   *                 them by the bundled baseline only
+   * @param onResult the callback for each result
+   * @return the list of results, in the order of the days
+   */
+  public List<DayResult> run(final List<Day<?>> days, final RunOptions options, final PerformanceReport previous,
+                             final Consumer<DayResult> onResult) {
+    final Map<String, long[]> expectedCosts = expectedCosts(previous);
+    // Create the jobs of each day
+    final List<Job> jobs = new ArrayList<>();
+    final List<ScheduledDay> scheduledDays = new ArrayList<>();
+    for (final Day<?> day : days) {
+      final long[] expectedCost = expectedCosts.getOrDefault(day.name(), new long[] { 0, 0 });
+      final DayTrace trace = new DayTrace();
+      final ScheduledDay scheduled = day instanceof ParsedDay<?, ?> parsedDay ?
+        scheduleParsed(parsedDay, expectedCost, options, jobs, trace) :
+        schedule(day, expectedCost, options, jobs, trace);
+      CompletableFuture.allOf(scheduled.parse, scheduled.part1, scheduled.part2)
+        .whenComplete((res, e) -> trace.event.end(day.name(), options.parts().size()));
+      scheduledDays.add(scheduled);
+    }
+
+    // Queue the jobs longest-job-first. The sort is stable, so jobs of unknown cost keep the order of the days
+    jobs.stream()
+      .sorted(Comparator.comparingLong(Job::expectedCost).reversed())
+      .forEach(job -> job.submit().run());
+
+    // Gather the results in the order of the days
+    final List<DayResult> results = new ArrayList<>();
+    for (int i = 0; i < days.size(); i++) {
+      final ScheduledDay scheduled = scheduledDays.get(i);
+      final DayResult result = new DayResult(
+        days.get(i).name(), join(scheduled.parse), join(scheduled.part1), join(scheduled.part2));
+      onResult.accept(result);
+      results.add(result);
+    }
+    return results;
+  }
+
+  /**
+   * Gets the expected cost of each part of each day, as the time it took in a previous run, or in the bundled baseline
+   * if the previous run did not have it, including the parsing
+   *
+   * @param previous the report of the previous run, or {@code null}
+   * @return the expected costs in nanoseconds, by the name of the day and then by part
+   */
+  private static Map<String, long[]> expectedCosts(final PerformanceReport previous) {
+    final Map<String, long[]> expectedCosts = new HashMap<>();
+    addCosts(PerformanceReport.baseline(), expectedCosts);
+    if (previous != null) {
+      addCosts(previous, expectedCosts);
+    }
+    return expectedCosts;
+  }
+
+  private static void addCosts(final PerformanceReport report, final Map<String, long[]> expectedCosts) {
+    for (final PerformanceReport.Entry entry : report.entries()) {
+      // The times of a failed part are not measurements
+      if ((entry.part() == 1 || entry.part() == 2) && !entry.failed()) {
+        expectedCosts.computeIfAbsent(entry.day(), day -> new long[2])[entry.part() - 1] =
+          entry.parseNanos() + entry.solveNanos();
+      }
+    }
+  }
+
+  /**
+   * Creates a job for each selected part of a day, with each part parsing its own input
+   */
+  private <T> ScheduledDay schedule(final Day<T> day, final long[] expectedCost, final RunOptions options,
+                                    final List<Job> jobs, final DayTrace trace) {
+    final CompletableFuture<TimedResult<?>> part1 = new CompletableFuture<>();
+    final CompletableFuture<TimedResult<?>> part2 = new CompletableFuture<>();
+    if (options.runs(1)) {
+      jobs.add(new Job(expectedCost[0], () -> runPart(() -> {
+        trace.start();
+        return day.timePart1(options);
+      }, expectedCost[0], options, part1)));
+    } else {
+      part1.complete(null);
+    }
+    if (options.runs(2)) {
+      jobs.add(new Job(expectedCost[1], () -> runPart(() -> {
+        trace.start();
+        return day.timePart2(options);
+      }, expectedCost[1], options, part2)));
+    } else {
+      part2.complete(null);
+    }
+    return new ScheduledDay(CompletableFuture.completedFuture(null), part1, part2);
+  }
+
+  /**
+   * Creates a single job that parses the input of a {@link ParsedDay}, with the priority of its most expensive selected
+   * part. The selected parts are queued by their own expected cost as soon as the parsing has finished.
+   */
+  private <M, T> ScheduledDay scheduleParsed(final ParsedDay<M, T> day, final long[] expectedCost,
+                                             final RunOptions options, final List<Job> jobs,
+                                             final DayTrace trace) {
+    final CompletableFuture<TimedResult<M>> parse = new CompletableFuture<>();
+    final long parseCost = Math.max(options.runs(1) ? expectedCost[0] : 0, options.runs(2) ? expectedCost[1] : 0);
+    jobs.add(new Job(parseCost, () -> parse.completeAsync(() -> {
+      trace.start();
+      return day.timeParse(options);
+    }, task -> dispatch(parseCost, task))));
+    final CompletableFuture<TimedResult<?>> part1 = new CompletableFuture<>();
+    final CompletableFuture<TimedResult<?>> part2 = new CompletableFuture<>();
+    parse.whenComplete((parsed, e) -> {
+      if (e != null) {
+        part1.completeExceptionally(e);
+        part2.completeExceptionally(e);
+        return;
+      }
+      if (options.runs(1)) {
+        runPart(() -> day.timePart1(parsed.res(), options), expectedCost[0], options, part1);
+      } else {
+        part1.complete(null);
+      }
+      if (options.runs(2)) {
+        runPart(() -> day.timePart2(parsed.res(), options), expectedCost[1], options, part2);
+      } else {
+        part2.complete(null);
+      }
+    });
+    return new ScheduledDay(parse, part1, part2);
+  }
+
+  /**
+   * Queues a part by its expected cost, runs it on the executor, and completes the result with it. With a timeout, the budget starts when the part
+   * starts running, and the result is completed with {@link TimedResult#timeout(long)} if the part is still running when
+   * the budget runs out. Completing the result, either way, cancels the part if it is still running.
+   *
+   * @param part         the timed part
+   * @param expectedCost the expected cost of the part in nanoseconds
+   * @param options      the {@link RunOptions} with the timeout
+   * @param result       the future to complete with the result of the part
+   */
+  private void runPart(final Supplier<? extends TimedResult<?>> part, final long expectedCost,
+                       final RunOptions options, final CompletableFuture<TimedResult<?>> result) {
+    final CompletableFuture<TimedResult<?>> running = CancellationToken.supplyAsync(() -> {
+      if (options.timeout() != null) {
+        final long budgetNanos = options.timeout().toNanos();
+        CompletableFuture.delayedExecutor(budgetNanos, TimeUnit.NANOSECONDS)
+          .execute(() -> result.complete(TimedResult.timeout(budgetNanos)));
+      }
+      return part.get();
+    }, task -> dispatch(expectedCost, task));
+    running.whenComplete((res, e) -> {
+      if (e != null) {
+        result.completeExceptionally(e);
+      } else {
+        result.complete(res);
+      }
+    });
+    result.whenComplete((res, e) -> running.cancel(true));
+  }
+
+  /**
+   * Queues work by its expected cost, and hands the executor a task that runs the most expensive work queued by the time
+   * the task starts. There is one task for each queued work, so every work runs exactly once.
+   *
+   * @param expectedCost the expected cost in nanoseconds
+   * @param work         the work
+   */
+  private void dispatch(final long expectedCost, final Runnable work) {
+    dispatches.add(new Dispatch(expectedCost, dispatched.getAndIncrement(), work));
+    executor.execute(() -> dispatches.remove().work.run());
+  }
+
+  @Override
+  public void close() {
+    executor.close();
+  }
+
+  /**
+   * Waits for the future to complete, and turns any failure of the part into an error result, so that one failing day
+   * does not lose the results of the others
+   *
+   * @param future the future
+   * @return the result of the future, or {@link TimedResult#error(Throwable)} if it failed
+   */
+  private static TimedResult<?> join(final CompletableFuture<? extends TimedResult<?>> future) {
+    try {
+      return future.join();
+    } catch (final CompletionException | CancellationException e) {
+      return TimedResult.error(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    }
+  }
+
+  /**
+   * A unit of work to submit to the executor
+   *
+   * @param expectedCost the expected cost in nanoseconds
+   * @param submit       submits the work
+   */
+  private record Job(long expectedCost, Runnable submit) { }
+
+  /**
+   * Queued work, ordered by decreasing expected cost, and then in the order it was queued
+   *
+   * @param expectedCost the expected cost in nanoseconds
+   * @param sequence     the order it was queued in
+   * @param work         the work
+   */
+  private record Dispatch(long expectedCost, long sequence, Runnable work) implements Comparable<Dispatch> {
+    @Override
+    public int compareTo(final Dispatch other) {
+      return expectedCost != other.expectedCost ?
+        Long.compare(other.expectedCost, expectedCost) :
+        Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * The {@link DayEvent} of a day whose jobs run on several threads. The event begins when the first job of the day
+   * starts, rather than when it is scheduled, so that it does not include the time spent waiting for a thread.
+   */
+  private static final class DayTrace {
+    private final DayEvent event = new DayEvent();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private void start() {
+      if (started.compareAndSet(false, true)) {
+        event.begin();
+      }
+    }
+  }
+
+  /**
+   * The pending results of a day
+   *
+   * @param parse the pending result of parsing (completed with {@code null} for days that do not parse once)
+   * @param part1 the pending result of part 1 (completed with {@code null} if the part is not selected)
+   * @param part2 the pending result of part 2 (completed with {@code null} if the part is not selected)
+   */
+  private record ScheduledDay(CompletableFuture<? extends TimedResult<?>> parse,
+                              CompletableFuture<? extends TimedResult<?>> part1,
+                              CompletableFuture<? extends TimedResult<?>> part2) { }
+}
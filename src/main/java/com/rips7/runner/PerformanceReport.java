@@ -0,0 +1,307 @@
+package com.rips7.runner;
+
+import com.rips7.util.ResourceUsage;
+import com.rips7.util.Util;
+import com.rips7.util.Util.TimedResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A machine-readable report with one {@link Entry} per day and part. Reports are written as CSV if the file name ends
+ * in {@code .csv}, and as JSON Lines (one JSON object per line) otherwise.
+ *
+ * @param entries the entries
+ */
+public record PerformanceReport(List<Entry> entries) {
+
+  /**
+   * Slowdowns smaller than this are considered noise, regardless of the threshold
+   */
+  private static final long NOISE_FLOOR_NANOS = 1_000_000L;
+
+  /**
+   * Allocation growth smaller than this is considered noise, regardless of the threshold
+   */
+  private static final long NOISE_FLOOR_BYTES = 1024 * 1024L;
+
+  private static final String CSV_HEADER = "day,part,answer,parseNanos,solveNanos,allocatedBytes,peakHeapBytes,gcCount,gcTimeMillis";
+
+  /**
+   * A report of a sequential run of every day on its bundled input, checked in so that there is an expected cost for
+   * every part even without the report of a previous run
+   */
+  private static final String BASELINE_RESOURCE = "/baseline-report.json";
+
+  private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"((?:[^\"\\\\]|\\\\.)*)\"|-?\\d+)");
+
+  /**
+   * The measurements of a part of a day
+   *
+   * @param day            the name of the day
+   * @param part           the part (1 or 2)
+   * @param answer         the answer
+   * @param parseNanos     the median time to parse the input once for both parts, or 0 if each part parses its own
+   * @param solveNanos     the median time to solve the part
+   * @param allocatedBytes the bytes allocated by the solving thread per run
+   * @param peakHeapBytes  the peak heap usage while solving, or {@link ResourceUsage#NOT_MEASURED} if other parts ran
+   *                       at the same time
+   * @param gcCount        the number of garbage collections while solving, or {@link ResourceUsage#NOT_MEASURED}
+   * @param gcTimeMillis   the time spent in garbage collections while solving, or {@link ResourceUsage#NOT_MEASURED}
+   */
+  public record Entry(String day, int part, String answer, long parseNanos, long solveNanos, long allocatedBytes,
+                      long peakHeapBytes, long gcCount, long gcTimeMillis) {
+
+    private String key() {
+      return "%s/%s".formatted(day, part);
+    }
+
+    /**
+     * @return true if the part failed or ran out of time, in which case its times are not measurements
+     */
+    public boolean failed() {
+      return answer.equals("TIMEOUT") || answer.startsWith("ERROR");
+    }
+  }
+
+  /**
+   * A part that got slower, allocates more, fails or answers differently than in the baseline
+   *
+   * @param baseline the baseline entry
+   * @param current  the current entry
+   * @param metric   the name of the metric that regressed ({@code parse}, {@code solve}, {@code allocated},
+   *                 {@code failed} or {@code answer})
+   * @param ratio    the ratio of the current to the baseline value, or {@code NaN} for a failure or another answer
+   */
+  public record Regression(Entry baseline, Entry current, String metric, double ratio) {
+    @Override
+    public String toString() {
+      if (Double.isNaN(ratio)) {
+        return "%s part %s: %s %s -> %s".formatted(current.day, current.part, metric, baseline.answer, current.answer);
+      }
+      return "%s part %s: %s %s -> %s (%+.1f%%)".formatted(current.day, current.part, metric, format(baseline),
+        format(current), (ratio - 1) * 100);
+    }
+
+    private String format(final Entry entry) {
+      return switch (metric) {
+        case "parse" -> Util.formatDuration(entry.parseNanos);
+        case "solve" -> Util.formatDuration(entry.solveNanos);
+        default -> ResourceUsage.formatBytes(entry.allocatedBytes);
+      };
+    }
+  }
+
+  /**
+   * Creates a report from the results of a run, with an entry for each part that ran
+   *
+   * @param results the results
+   * @return the {@link PerformanceReport}
+   */
+  public static PerformanceReport of(final List<DayResult> results) {
+    final List<Entry> entries = new ArrayList<>();
+    for (final DayResult result : results) {
+      final long parseNanos = result.parse() != null ? result.parse().stats().medianNanos() : 0L;
+      if (result.part1() != null) {
+        entries.add(entry(result.name(), 1, parseNanos, result.part1()));
+      }
+      if (result.part2() != null) {
+        entries.add(entry(result.name(), 2, parseNanos, result.part2()));
+      }
+    }
+    return new PerformanceReport(entries);
+  }
+
+  private static Entry entry(final String day, final int part, final long parseNanos, final TimedResult<?> result) {
+    return new Entry(day, part, String.valueOf(result.res()), parseNanos, result.stats().medianNanos(),
+      result.usage().allocatedBytes(), result.usage().peakHeapBytes(), result.usage().gcCount(),
+      result.usage().gcTimeMillis());
+  }
+
+  /**
+   * Reads a report that was previously written with {@link #write(Path)}
+   *
+   * @param path the path of the report
+   * @return the {@link PerformanceReport}
+   */
+  public static PerformanceReport read(final Path path) {
+    try (Stream<String> lines = Files.lines(path)) {
+      return parse(lines, isCsv(path));
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot read report '%s'".formatted(path), e);
+    }
+  }
+
+  /**
+   * Reads the bundled baseline report, of a sequential run of every day on its bundled input
+   *
+   * @return the {@link PerformanceReport}
+   */
+  public static PerformanceReport baseline() {
+    return parse(Util.readResource(BASELINE_RESOURCE).lines(), false);
+  }
+
+  private static PerformanceReport parse(final Stream<String> lines, final boolean csv) {
+    return new PerformanceReport(lines
+      .filter(line -> !line.isBlank() && !line.startsWith("day,"))
+      .map(line -> csv ? parseCsv(line) : parseJson(line))
+      .toList());
+  }
+
+  /**
+   * Writes the report
+   *
+   * @param path the path of the report
+   */
+  public void write(final Path path) {
+    final List<String> lines = isCsv(path) ?
+      Stream.concat(Stream.of(CSV_HEADER), entries.stream().map(PerformanceReport::toCsv)).toList() :
+      entries.stream().map(PerformanceReport::toJson).toList();
+    try {
+      Files.write(path, lines);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot write report '%s'".formatted(path), e);
+    }
+  }
+
+  /**
+   * Compares this report against a baseline, and finds the parts whose parse time, solve time or allocated bytes grew
+   * by more than the given threshold. A part that passed in the baseline and now fails or runs out of time is a
+   * regression, and so is an answer that differs from the baseline. Parts that are missing from either report are
+   * ignored.
+   *
+   * @param baseline         the baseline report
+   * @param thresholdPercent the allowed slowdown, in percent
+   * @return the list of {@link Regression}s
+   */
+  public List<Regression> compare(final PerformanceReport baseline, final double thresholdPercent) {
+    final Map<String, Entry> baselineEntries = baseline.entries.stream()
+      .collect(Collectors.toMap(Entry::key, Function.identity(), (e1, e2) -> e2));
+    final double maxRatio = 1 + thresholdPercent / 100;
+    final List<Regression> regressions = new ArrayList<>();
+    for (final Entry current : entries) {
+      final Entry previous = baselineEntries.get(current.key());
+      if (previous == null || previous.failed()) {
+        continue;
+      }
+      if (current.failed()) {
+        // The times of a failed part are not measurements, so they are not compared
+        regressions.add(new Regression(previous, current, "failed", Double.NaN));
+        continue;
+      }
+      if (!current.answer.equals(previous.answer)) {
+        regressions.add(new Regression(previous, current, "answer", Double.NaN));
+      }
+      if (isRegression(previous.parseNanos, current.parseNanos, maxRatio, NOISE_FLOOR_NANOS)) {
+        regressions.add(new Regression(previous, current, "parse", (double) current.parseNanos / previous.parseNanos));
+      }
+      if (isRegression(previous.solveNanos, current.solveNanos, maxRatio, NOISE_FLOOR_NANOS)) {
+        regressions.add(new Regression(previous, current, "solve", (double) current.solveNanos / previous.solveNanos));
+      }
+      if (isRegression(previous.allocatedBytes, current.allocatedBytes, maxRatio, NOISE_FLOOR_BYTES)) {
+        regressions.add(new Regression(previous, current, "allocated",
+          (double) current.allocatedBytes / previous.allocatedBytes));
+      }
+    }
+    return regressions;
+  }
+
+  private static boolean isRegression(final long previous, final long current, final double maxRatio,
+                                      final long noiseFloor) {
+    return previous > 0 && current - previous > noiseFloor && current > previous * maxRatio;
+  }
+
+  private static boolean isCsv(final Path path) {
+    return path.getFileName().toString().toLowerCase().endsWith(".csv");
+  }
+
+  private static String toCsv(final Entry e) {
+    return "%s,%s,\"%s\",%s,%s,%s,%s,%s,%s".formatted(e.day, e.part, e.answer.replace("\"", "\"\""), e.parseNanos,
+      e.solveNanos, e.allocatedBytes, e.peakHeapBytes, e.gcCount, e.gcTimeMillis);
+  }
+
+  private static Entry parseCsv(final String line) {
+    // Split on commas outside quotes
+    final List<String> fields = new ArrayList<>();
+    final StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == '"') {
+        if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = !quoted;
+        }
+      } else if (c == ',' && !quoted) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    if (fields.size() != 9) {
+      throw new RuntimeException("Cannot parse report line %s".formatted(line));
+    }
+    return new Entry(fields.get(0), Integer.parseInt(fields.get(1)), fields.get(2), Long.parseLong(fields.get(3)),
+      Long.parseLong(fields.get(4)), Long.parseLong(fields.get(5)), Long.parseLong(fields.get(6)),
+      Long.parseLong(fields.get(7)), Long.parseLong(fields.get(8)));
+  }
+
+  private static String toJson(final Entry e) {
+    return ("{\"day\":\"%s\",\"part\":%s,\"answer\":\"%s\",\"parseNanos\":%s,\"solveNanos\":%s,\"allocatedBytes\":%s," +
+      "\"peakHeapBytes\":%s,\"gcCount\":%s,\"gcTimeMillis\":%s}").formatted(escapeJson(e.day), e.part,
+      escapeJson(e.answer), e.parseNanos, e.solveNanos, e.allocatedBytes, e.peakHeapBytes, e.gcCount, e.gcTimeMillis);
+  }
+
+  private static Entry parseJson(final String line) {
+    final Map<String, String> fields = new HashMap<>();
+    final Matcher matcher = JSON_FIELD.matcher(line);
+    while (matcher.find()) {
+      fields.put(matcher.group(1), matcher.group(3) != null ? unescapeJson(matcher.group(3)) : matcher.group(2));
+    }
+    try {
+      return new Entry(fields.get("day"), Integer.parseInt(fields.get("part")), fields.get("answer"),
+        Long.parseLong(fields.get("parseNanos")), Long.parseLong(fields.get("solveNanos")),
+        Long.parseLong(fields.get("allocatedBytes")), Long.parseLong(fields.get("peakHeapBytes")),
+        Long.parseLong(fields.get("gcCount")), Long.parseLong(fields.get("gcTimeMillis")));
+    } catch (final NumberFormatException e) {
+      throw new RuntimeException("Cannot parse report line %s".formatted(line), e);
+    }
+  }
+
+  private static String escapeJson(final String s) {
+    return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /**
+   * Reverts {@link #escapeJson(String)} in a single pass from left to right, so that an escaped backslash is never
+   * read as the start of another escape
+   */
+  private static String unescapeJson(final String s) {
+    final StringBuilder unescaped = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      if (c != '\\' || i + 1 == s.length()) {
+        unescaped.append(c);
+        continue;
+      }
+      final char escaped = s.charAt(++i);
+      unescaped.append(escaped == 'n' ? '\n' : escaped);
+    }
+    return unescaped.toString();
+  }
+}
@@ -0,0 +1,90 @@
+package com.rips7.runner;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Options for running a day
+ *
+ * @param warmups    the number of unmeasured runs of each part before measuring
+ * @param iterations the number of measured runs of each part
+ * @param parts      the parts to run (1 and/or 2)
+ * @param inputs     input files that replace the bundled input, keyed by the name of the day
+ * @param timeout    the time budget of each part, including its warmups and repeats, or {@code null} for no limit
+ */
+public record RunOptions(int warmups, int iterations, Set<Integer> parts, Map<String, Path> inputs,
+                         Duration timeout) {
+
+  /**
+   * A single measured run of both parts, without warmup
+   */
+  public static final RunOptions DEFAULT = new RunOptions(0, 1);
+
+  public RunOptions {
+    if (warmups < 0 || iterations < 1) {
+      throw new IllegalArgumentException("Invalid warmups %s / iterations %s".formatted(warmups, iterations));
+    }
+    if (parts.isEmpty() || !Set.of(1, 2).containsAll(parts)) {
+      throw new IllegalArgumentException("Invalid parts %s".formatted(parts));
+    }
+    if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+      throw new IllegalArgumentException("Invalid timeout %s".formatted(timeout));
+    }
+    parts = Set.copyOf(parts);
+    inputs = Map.copyOf(inputs);
+  }
+
+  /**
+   * Creates options for both parts on the bundled inputs
+   *
+   * @param warmups    the number of unmeasured runs
+   * @param iterations the number of measured runs
+   */
+  public RunOptions(final int warmups, final int iterations) {
+    this(warmups, iterations, Set.of(1, 2), Map.of(), null);
+  }
+
+  /**
+   * Creates options for statistical timing
+   *
+   * @param warmups    the number of unmeasured runs
+   * @param iterations the number of measured runs
+   * @return the {@link RunOptions}
+   */
+  public static RunOptions statistical(final int warmups, final int iterations) {
+    return new RunOptions(warmups, iterations);
+  }
+
+  /**
+   * Checks whether the given part should run
+   *
+   * @param part the part (1 or 2)
+   * @return true if the part should run, false otherwise
+   */
+  public boolean runs(final int part) {
+    return parts.contains(part);
+  }
+
+  /**
+   * Gets the input file that replaces the bundled input of the given day
+   *
+   * @param day the name of the day
+   * @return the path of the input file, or empty to use the bundled input
+   */
+  public Optional<Path> input(final String day) {
+    return Optional.ofNullable(inputs.get(day));
+  }
+
+  /**
+   * Creates a copy of these options with a time budget for each part
+   *
+   * @param timeout the time budget, or {@code null} for no limit
+   * @return the {@link RunOptions}
+   */
+  public RunOptions withTimeout(final Duration timeout) {
+    return new RunOptions(warmups, iterations, parts, inputs, timeout);
+  }
+}
@@ -0,0 +1,232 @@
+package com.rips7.runner;
+
+import com.rips7.day.AllDays;
+import com.rips7.day.Day;
+import com.rips7.generator.InputGenerator;
+import com.rips7.generator.InputGenerators;
+import com.rips7.util.ResourceUsage;
+import com.rips7.util.Util;
+import com.rips7.util.Util.AnsiColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import static com.rips7.util.Util.printColor;
+
+/**
+ * Runs days on synthetic inputs of growing scale from their {@link InputGenerator}, and plots the solve time of each
+ * part against the input size on a log-log chart. The slope of the fitted line is the empirical complexity exponent
+ * (1 for linear, 2 for quadratic), so that superlinear parts stand out. Supported arguments:
+ * <ul>
+ *   <li>{@code DayN ...}: the days to run (default all)</li>
+ *   <li>{@code --scales <s1,s2,...>}: the scale factors (default 1,2,4,8)</li>
+ *   <li>{@code --seed <seed>}: the seed of the generators (default 2024)</li>
+ *   <li>{@code --budget <seconds>}: stops growing a day once a part takes longer than this (default 60)</li>
+ *   <li>{@code --warmup <n>}: the unmeasured runs of each part at every scale, which go on for at least half a second
+ *   (default 1)</li>
+ *   <li>{@code --repeat <n>}: the measured runs of each part at every scale (default 5)</li>
+ * </ul>
+ * Each part parses its own input, so the times include parsing. Every scale is warmed up before it is measured, since
+ * a larger input can take paths (and trigger recompilations) that a smaller one did not, and the time of a part is the
+ * median of its measured runs, so that a single GC pause or scheduling hiccup does not bend the fitted line.
+ */
+public class ScalingRunner {
+
+  private static final int PLOT_WIDTH = 60;
+  private static final int PLOT_HEIGHT = 15;
+  private static final long MIN_WARMUP_NANOS = 500_000_000L;
+
+  /**
+   * The measurements of a day at a scale
+   *
+   * @param scale       the scale
+   * @param inputBytes  the size of the generated input
+   * @param part1Nanos  the median time of part 1
+   * @param part2Nanos  the median time of part 2
+   */
+  public record Sample(int scale, long inputBytes, long part1Nanos, long part2Nanos) { }
+
+  public static void main(String[] args) {
+    final Set<Integer> days = new HashSet<>();
+    int[] scales = { 1, 2, 4, 8 };
+    long seed = 2024;
+    long budgetNanos = 60_000_000_000L;
+    int warmups = 1;
+    int iterations = 5;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--scales" -> scales = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).sorted().toArray();
+        case "--seed" -> seed = Long.parseLong(args[++i]);
+        case "--budget" -> budgetNanos = (long) (Double.parseDouble(args[++i]) * 1_000_000_000L);
+        case "--warmup" -> warmups = Integer.parseInt(args[++i]);
+        case "--repeat" -> iterations = Integer.parseInt(args[++i]);
+        default -> {
+          if (!args[i].matches("Day\\d+")) {
+            throw new IllegalArgumentException("Unknown argument %s".formatted(args[i]));
+          }
+          days.add(Integer.parseInt(args[i].substring("Day".length())));
+        }
+      }
+    }
+
+    final int[] allScales = scales;
+    final long finalSeed = seed;
+    final long finalBudgetNanos = budgetNanos;
+    final int finalWarmups = warmups;
+    final int finalIterations = iterations;
+    (days.isEmpty() ? AllDays.getAllDays() : AllDays.getDays(days))
+      .forEach(day -> InputGenerators.forDay(day.name()).ifPresentOrElse(
+        generator -> report(day,
+          run(day, generator, allScales, finalSeed, finalBudgetNanos, finalWarmups, finalIterations),
+          generator.isScalable()),
+        () -> System.out.printf("----- %s -----%nNo input generator%n", day.name())));
+  }
+
+  /**
+   * Runs a day on generated inputs of each scale, until a part exceeds the time budget
+   *
+   * @param day         the day
+   * @param generator   the generator of the day
+   * @param scales      the scales, in increasing order
+   * @param seed        the seed of the generator
+   * @param budgetNanos the time budget of a part, checked against its median time
+   * @param warmups     the unmeasured runs of each part at every scale
+   * @param iterations  the measured runs of each part at every scale
+   * @return the list of {@link Sample}s
+   */
+  public static List<Sample> run(final Day<?> day, final InputGenerator generator, final int[] scales,
+                                 final long seed, final long budgetNanos, final int warmups, final int iterations) {
+    final List<Sample> samples = new ArrayList<>();
+    for (final int scale : generator.isScalable() ? scales : new int[] { 1 }) {
+      final String input = generator.generate(scale, seed);
+      final long part1Nanos = medianNanos(() -> day.part1(input), warmups, iterations);
+      final long part2Nanos = medianNanos(() -> day.part2(input), warmups, iterations);
+      samples.add(new Sample(scale, input.length(), part1Nanos, part2Nanos));
+      if (Math.max(part1Nanos, part2Nanos) > budgetNanos) {
+        break;
+      }
+    }
+    return samples;
+  }
+
+  /**
+   * Warms a part up, and times it
+   *
+   * @param part       the part
+   * @param warmups    the minimum number of unmeasured runs
+   * @param iterations the number of measured runs
+   * @return the median time of the measured runs
+   */
+  private static long medianNanos(final Supplier<?> part, final int warmups, final int iterations) {
+    // Small inputs solve in a few milliseconds, so a couple of runs would leave them to the interpreter: warm them up
+    // for a minimum time as well
+    final long warmupEnd = System.nanoTime() + MIN_WARMUP_NANOS;
+    for (int i = 0; i < warmups || System.nanoTime() < warmupEnd; i++) {
+      part.get();
+    }
+    return Util.time(part::get, 0, iterations).stats().medianNanos();
+  }
+
+  /**
+   * Prints the samples of a day as a table, a log-log plot, and the fitted exponent of each part
+   */
+  private static void report(final Day<?> day, final List<Sample> samples, final boolean scalable) {
+    System.out.printf("----- %s -----%n", day.name());
+    System.out.printf("%8s %12s %16s %16s%n", "scale", "input", "part 1", "part 2");
+    for (final Sample sample : samples) {
+      System.out.printf("%8s %12s %16s %16s%n", sample.scale, ResourceUsage.formatBytes(sample.inputBytes),
+        Util.formatDuration(sample.part1Nanos), Util.formatDuration(sample.part2Nanos));
+    }
+    if (!scalable) {
+      printColor("Fixed-size input, not scaled%n".formatted(), AnsiColor.YELLOW);
+      return;
+    }
+    if (samples.size() < 2) {
+      printColor("Not enough samples to fit%n".formatted(), AnsiColor.YELLOW);
+      return;
+    }
+    plot(samples);
+    printSlope("Part 1", slope(samples, Sample::part1Nanos));
+    printSlope("Part 2", slope(samples, Sample::part2Nanos));
+  }
+
+  private static void printSlope(final String part, final double slope) {
+    System.out.printf("%s: time ~ n^%.2f ", part, slope);
+    if (slope > 1.3) {
+      printColor("(superlinear)%n".formatted(), AnsiColor.RED);
+    } else {
+      printColor("(linear or better)%n".formatted(), AnsiColor.GREEN);
+    }
+  }
+
+  /**
+   * Fits {@code log(time) = slope * log(size) + c} with least squares
+   *
+   * @param samples the samples
+   * @param time    the time of the part to fit
+   * @return the slope
+   */
+  public static double slope(final List<Sample> samples, final ToLongFunction<Sample> time) {
+    final double[] xs = samples.stream().mapToDouble(s -> Math.log(s.inputBytes)).toArray();
+    final double[] ys = samples.stream().mapToDouble(s -> Math.log(Math.max(1, time.applyAsLong(s)))).toArray();
+    final double meanX = Arrays.stream(xs).average().orElseThrow();
+    final double meanY = Arrays.stream(ys).average().orElseThrow();
+    double covariance = 0;
+    double variance = 0;
+    for (int i = 0; i < xs.length; i++) {
+      covariance += (xs[i] - meanX) * (ys[i] - meanY);
+      variance += (xs[i] - meanX) * (xs[i] - meanX);
+    }
+    return variance == 0 ? 0 : covariance / variance;
+  }
+
+  /**
+   * Plots the time of both parts against the input size, both in log scale. Points of part 1 are {@code 1}, of part 2
+   * are {@code 2}, and {@code *} where they overlap.
+   */
+  private static void plot(final List<Sample> samples) {
+    final double minX = Math.log(samples.getFirst().inputBytes);
+    final double maxX = Math.log(samples.getLast().inputBytes);
+    final double minY = Math.log(Math.max(1, samples.stream()
+      .mapToLong(s -> Math.min(s.part1Nanos, s.part2Nanos)).min().orElseThrow()));
+    final double maxY = Math.log(Math.max(1, samples.stream()
+      .mapToLong(s -> Math.max(s.part1Nanos, s.part2Nanos)).max().orElseThrow()));
+
+    final char[][] canvas = new char[PLOT_HEIGHT][PLOT_WIDTH];
+    for (final char[] row : canvas) {
+      Arrays.fill(row, ' ');
+    }
+    for (final Sample sample : samples) {
+      final int col = scaleTo(Math.log(sample.inputBytes), minX, maxX, PLOT_WIDTH);
+      mark(canvas, col, PLOT_HEIGHT - 1 - scaleTo(Math.log(Math.max(1, sample.part1Nanos)), minY, maxY, PLOT_HEIGHT),
+        '1');
+      mark(canvas, col, PLOT_HEIGHT - 1 - scaleTo(Math.log(Math.max(1, sample.part2Nanos)), minY, maxY, PLOT_HEIGHT),
+        '2');
+    }
+
+    final String top = Util.formatDuration((long) Math.exp(maxY));
+    final String bottom = Util.formatDuration((long) Math.exp(minY));
+    final int labelWidth = Math.max(top.length(), bottom.length());
+    for (int r = 0; r < PLOT_HEIGHT; r++) {
+      final String label = r == 0 ? top : r == PLOT_HEIGHT - 1 ? bottom : "";
+      System.out.printf("%" + labelWidth + "s |%s%n", label, new String(canvas[r]));
+    }
+    System.out.printf("%" + labelWidth + "s +%s%n", "", "-".repeat(PLOT_WIDTH));
+    final String left = ResourceUsage.formatBytes(samples.getFirst().inputBytes);
+    final String right = ResourceUsage.formatBytes(samples.getLast().inputBytes);
+    System.out.printf("%" + labelWidth + "s  %s%" + (PLOT_WIDTH - left.length()) + "s%n", "", left, right);
+  }
+
+  private static int scaleTo(final double value, final double min, final double max, final int size) {
+    return max == min ? 0 : (int) Math.round((value - min) / (max - min) * (size - 1));
+  }
+
+  private static void mark(final char[][] canvas, final int col, final int row, final char mark) {
+    canvas[row][col] = canvas[row][col] == ' ' || canvas[row][col] == mark ? mark : '*';
+  }
+}
@@ -0,0 +1,359 @@
+package com.rips7.util;
+
+import com.rips7.util.Util.Position;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mutable grid of ASCII characters, backed by a single flat {@code byte[]}. Cell {@code (row, col)} lives at
+ * {@code row * stride + col}, where the stride is the width of a row plus its line terminator, so that a grid can wrap
+ * the bytes of an input as they are, without splitting it into lines or boxing a {@link Character} per cell.
+ * <p>
+ * The accessors mirror {@link Util.Grid}: reads outside the grid return the {@code outside} character instead of
+ * failing, while the {@code Unchecked} variants skip the bounds check for hot loops that already know they are inside.
+ */
+public final class CharGrid {
+
+  /**
+   * The default character for cells outside the grid
+   */
+  public static final char OUTSIDE = '\0';
+
+  private final byte[] cells;
+  private final int rows;
+  private final int cols;
+  private final int stride;
+  private final char outside;
+
+  private CharGrid(final byte[] cells, final int rows, final int cols, final int stride, final char outside) {
+    this.cells = cells;
+    this.rows = rows;
+    this.cols = cols;
+    this.stride = stride;
+    this.outside = outside;
+  }
+
+  /**
+   * Parses a grid with one row per line
+   *
+   * @param input the input
+   * @return the {@link CharGrid}, with {@link #OUTSIDE} outside
+   */
+  public static CharGrid parse(final String input) {
+    return parse(input, OUTSIDE);
+  }
+
+  /**
+   * Parses a grid with one row per line
+   *
+   * @param input   the input
+   * @param outside the character of the cells outside the grid
+   * @return the {@link CharGrid}
+   */
+  public static CharGrid parse(final String input, final char outside) {
+    return wrap(input.getBytes(StandardCharsets.ISO_8859_1), outside);
+  }
+
+  /**
+   * Reads a grid with one row per line from the remaining bytes of a buffer, with a single bulk copy. The buffer's
+   * position is not changed.
+   *
+   * @param input   the input
+   * @param outside the character of the cells outside the grid
+   * @return the {@link CharGrid}
+   */
+  public static CharGrid of(final ByteBuffer input, final char outside) {
+    final byte[] bytes = new byte[input.remaining()];
+    input.get(input.position(), bytes);
+    return wrap(bytes, outside);
+  }
+
+  /**
+   * Creates a grid with every cell set to the same character
+   *
+   * @param rows    the number of rows
+   * @param cols    the number of columns
+   * @param fill    the character of every cell
+   * @param outside the character of the cells outside the grid
+   * @return the {@link CharGrid}
+   */
+  public static CharGrid filled(final int rows, final int cols, final char fill, final char outside) {
+    final byte[] cells = new byte[rows * cols];
+    Arrays.fill(cells, (byte) fill);
+    return new CharGrid(cells, rows, cols, cols, outside);
+  }
+
+  /**
+   * Wraps the bytes of an input, which becomes owned by the grid. Rows are separated by {@code \n} or {@code \r\n},
+   * and trailing line terminators are ignored.
+   *
+   * @param bytes   the bytes of the input
+   * @param outside the character of the cells outside the grid
+   * @return the {@link CharGrid}
+   */
+  private static CharGrid wrap(final byte[] bytes, final char outside) {
+    int length = bytes.length;
+    while (length > 0 && (bytes[length - 1] == '\n' || bytes[length - 1] == '\r')) {
+      length--;
+    }
+    if (length == 0) {
+      throw new IllegalArgumentException("The grid is empty");
+    }
+    int lineEnd = 0;
+    while (lineEnd < length && bytes[lineEnd] != '\n') {
+      lineEnd++;
+    }
+    final int cols = lineEnd > 0 && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+    final int stride = lineEnd + 1;
+    if ((length - cols) % stride != 0) {
+      throw new IllegalArgumentException("The grid is not rectangular");
+    }
+    final int rows = (length - cols) / stride + 1;
+    for (int r = 0; r < rows - 1; r++) {
+      if (bytes[r * stride + stride - 1] != '\n') {
+        throw new IllegalArgumentException("Row %s of the grid is not %s columns wide".formatted(r, cols));
+      }
+    }
+    return new CharGrid(bytes, rows, cols, stride, outside);
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int cols() {
+    return cols;
+  }
+
+  public char outside() {
+    return outside;
+  }
+
+  public boolean isWithin(final int row, final int col) {
+    return Util.isWithinGrid(row, col, rows, cols);
+  }
+
+  public boolean isWithin(final Position pos) {
+    return isWithin(pos.x(), pos.y());
+  }
+
+  /**
+   * Gets the character of a cell
+   *
+   * @param row the row
+   * @param col the column
+   * @return the character, or the {@code outside} character if the cell is not within the grid
+   */
+  public char get(final int row, final int col) {
+    return isWithin(row, col) ? getUnchecked(row, col) : outside;
+  }
+
+  public char get(final Position pos) {
+    return get(pos.x(), pos.y());
+  }
+
+  /**
+   * Gets the character of a cell that is known to be within the grid. Columns past the end of a row are not detected,
+   * and read the line terminator or the next row.
+   *
+   * @param row the row
+   * @param col the column
+   * @return the character
+   */
+  public char getUnchecked(final int row, final int col) {
+    return (char) (cells[row * stride + col] & 0xFF);
+  }
+
+  /**
+   * Sets the character of a cell
+   *
+   * @param row   the row
+   * @param col   the column
+   * @param value the character
+   * @throws IndexOutOfBoundsException if the cell is not within the grid
+   */
+  public void set(final int row, final int col, final char value) {
+    if (!isWithin(row, col)) {
+      throw new IndexOutOfBoundsException("(%s, %s) is outside the %sx%s grid".formatted(row, col, rows, cols));
+    }
+    setUnchecked(row, col, value);
+  }
+
+  public void set(final Position pos, final char value) {
+    set(pos.x(), pos.y(), value);
+  }
+
+  public void setUnchecked(final int row, final int col, final char value) {
+    cells[row * stride + col] = (byte) value;
+  }
+
+  /**
+   * @return the number of cells, i.e. the bound of the dense indices of {@link Coords}
+   */
+  public int size() {
+    return rows * cols;
+  }
+
+  public int index(final int row, final int col) {
+    return Coords.index(row, col, cols);
+  }
+
+  public int index(final Position pos) {
+    return index(pos.x(), pos.y());
+  }
+
+  /**
+   * Gets the character of a cell by its dense index (see {@link Coords})
+   *
+   * @param index the dense index
+   * @return the character
+   */
+  public char getAt(final int index) {
+    return (char) (cells[offsetOf(index)] & 0xFF);
+  }
+
+  public void setAt(final int index, final char value) {
+    cells[offsetOf(index)] = (byte) value;
+  }
+
+  private int offsetOf(final int index) {
+    // Skip the line terminators of the rows before the cell
+    return stride == cols ? index : index + (index / cols) * (stride - cols);
+  }
+
+  /**
+   * Finds the first cell with the given character, in row-major order
+   *
+   * @param value the character
+   * @return the {@link Position} of the cell
+   * @throws RuntimeException if no cell has the character
+   */
+  public Position find(final char value) {
+    for (int r = 0; r < rows; r++) {
+      final int start = r * stride;
+      for (int c = 0; c < cols; c++) {
+        if (cells[start + c] == (byte) value) {
+          return Position.of(r, c);
+        }
+      }
+    }
+    throw new RuntimeException("Cannot find %s in the grid".formatted(value));
+  }
+
+  /**
+   * Finds all the cells with the given character, in row-major order
+   *
+   * @param value the character
+   * @return the {@link Position}s of the cells
+   */
+  public List<Position> findAll(final char value) {
+    final List<Position> positions = new ArrayList<>();
+    forEach((cell, r, c) -> {
+      if (cell == value) {
+        positions.add(Position.of(r, c));
+      }
+    });
+    return positions;
+  }
+
+  /**
+   * Visits every cell, in row-major order
+   *
+   * @param visitor the visitor of each cell
+   */
+  public void forEach(final CellConsumer visitor) {
+    for (int r = 0; r < rows; r++) {
+      final int start = r * stride;
+      for (int c = 0; c < cols; c++) {
+        visitor.accept((char) (cells[start + c] & 0xFF), r, c);
+      }
+    }
+  }
+
+  /**
+   * Gets a row as a {@link CharSequence}, which reads through to the grid and sees later changes to it
+   *
+   * @param row the row
+   * @return the view of the row
+   */
+  public CharSequence row(final int row) {
+    if (row < 0 || row >= rows) {
+      throw new IndexOutOfBoundsException("Row %s is outside the %sx%s grid".formatted(row, rows, cols));
+    }
+    return new RowView(row * stride, cols);
+  }
+
+  /**
+   * Copies the grid, so that the copy can be changed independently. The copy keeps the stride of this grid, so that
+   * it is a single array copy.
+   *
+   * @return the copy
+   */
+  public CharGrid copy() {
+    return new CharGrid(cells.clone(), rows, cols, stride, outside);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(rows * (cols + 1));
+    for (int r = 0; r < rows; r++) {
+      if (r > 0) {
+        builder.append('\n');
+      }
+      builder.append(row(r));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Visits a cell of a {@link CharGrid}, without boxing
+   */
+  @FunctionalInterface
+  public interface CellConsumer {
+    void accept(char value, int row, int col);
+  }
+
+  /**
+   * A read-through view of a range of the cells
+   */
+  private final class RowView implements CharSequence {
+
+    private final int start;
+    private final int length;
+
+    private RowView(final int start, final int length) {
+      this.start = start;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return (char) (cells[start + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int from, final int to) {
+      if (from < 0 || from > to || to > length) {
+        throw new IndexOutOfBoundsException("[%s, %s) of %s".formatted(from, to, length));
+      }
+      return new RowView(start + from, to - from);
+    }
+
+    @Override
+    public String toString() {
+      return new String(cells, start, length, StandardCharsets.ISO_8859_1);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.rips7.util;
+
+import com.rips7.util.Util.Position;
+
+import java.util.Arrays;
+
+/**
+ * An immutable view of a base {@link CharGrid} with a few cells changed, for what-if simulations that would otherwise
+ * copy a whole grid to change one cell. The changed cells are kept as a small sparse delta of dense indices (see
+ * {@link Coords}) and characters, and {@link #with} returns a new overlay with one more change, copying only the delta.
+ * <p>
+ * The base grid is shared by every overlay on top of it and must not change while they are in use. Given that, an
+ * overlay never changes after it is created, so it can be shared freely across threads, e.g. by parallel searches that
+ * each try a different change.
+ */
+public final class CharGridOverlay {
+
+  private static final int[] NO_INDICES = new int[0];
+  private static final char[] NO_VALUES = new char[0];
+
+  private final CharGrid base;
+  private final int[] indices;
+  private final char[] values;
+
+  private CharGridOverlay(final CharGrid base, final int[] indices, final char[] values) {
+    this.base = base;
+    this.indices = indices;
+    this.values = values;
+  }
+
+  /**
+   * Creates an overlay with no changes yet
+   *
+   * @param base the base grid, which must not change while the overlay is in use
+   * @return the {@link CharGridOverlay}
+   */
+  public static CharGridOverlay of(final CharGrid base) {
+    return new CharGridOverlay(base, NO_INDICES, NO_VALUES);
+  }
+
+  public CharGrid base() {
+    return base;
+  }
+
+  /**
+   * @return the number of changed cells
+   */
+  public int edits() {
+    return indices.length;
+  }
+
+  public int rows() {
+    return base.rows();
+  }
+
+  public int cols() {
+    return base.cols();
+  }
+
+  public int size() {
+    return base.size();
+  }
+
+  public boolean isWithin(final int row, final int col) {
+    return base.isWithin(row, col);
+  }
+
+  public boolean isWithin(final Position pos) {
+    return base.isWithin(pos);
+  }
+
+  public int index(final int row, final int col) {
+    return base.index(row, col);
+  }
+
+  public int index(final Position pos) {
+    return base.index(pos);
+  }
+
+  /**
+   * Gets the character of a cell
+   *
+   * @param row the row
+   * @param col the column
+   * @return the character, or the {@code outside} character of the base if the cell is not within the grid
+   */
+  public char get(final int row, final int col) {
+    return isWithin(row, col) ? getUnchecked(row, col) : base.outside();
+  }
+
+  public char get(final Position pos) {
+    return get(pos.x(), pos.y());
+  }
+
+  public char getUnchecked(final int row, final int col) {
+    final int edit = editOf(index(row, col));
+    return edit >= 0 ? values[edit] : base.getUnchecked(row, col);
+  }
+
+  /**
+   * Gets the character of a cell by its dense index
+   *
+   * @param index the dense index
+   * @return the character
+   */
+  public char getAt(final int index) {
+    final int edit = editOf(index);
+    return edit >= 0 ? values[edit] : base.getAt(index);
+  }
+
+  /**
+   * Creates an overlay with one more changed cell. This overlay is not changed.
+   *
+   * @param row   the row
+   * @param col   the column
+   * @param value the character
+   * @return the new {@link CharGridOverlay}
+   * @throws IndexOutOfBoundsException if the cell is not within the grid
+   */
+  public CharGridOverlay with(final int row, final int col, final char value) {
+    if (!isWithin(row, col)) {
+      throw new IndexOutOfBoundsException("(%s, %s) is outside the %sx%s grid".formatted(row, col, rows(), cols()));
+    }
+    return withAt(index(row, col), value);
+  }
+
+  public CharGridOverlay with(final Position pos, final char value) {
+    return with(pos.x(), pos.y(), value);
+  }
+
+  /**
+   * Creates an overlay with one more changed cell, by its dense index. This overlay is not changed.
+   *
+   * @param index the dense index
+   * @param value the character
+   * @return the new {@link CharGridOverlay}
+   */
+  public CharGridOverlay withAt(final int index, final char value) {
+    // The grid keeps the low byte of the characters, so the overlay does too
+    final char stored = (char) (value & 0xFF);
+    final int edit = editOf(index);
+    if (edit >= 0) {
+      final char[] newValues = values.clone();
+      newValues[edit] = stored;
+      return new CharGridOverlay(base, indices, newValues);
+    }
+    final int[] newIndices = Arrays.copyOf(indices, indices.length + 1);
+    final char[] newValues = Arrays.copyOf(values, values.length + 1);
+    newIndices[indices.length] = index;
+    newValues[values.length] = stored;
+    return new CharGridOverlay(base, newIndices, newValues);
+  }
+
+  /**
+   * Copies the base grid with the changes applied, for when an overlay has to become a grid of its own
+   *
+   * @return the new {@link CharGrid}
+   */
+  public CharGrid toCharGrid() {
+    final CharGrid grid = base.copy();
+    for (int i = 0; i < indices.length; i++) {
+      grid.setAt(indices[i], values[i]);
+    }
+    return grid;
+  }
+
+  private int editOf(final int index) {
+    // The delta is expected to be a handful of cells, so a linear scan beats hashing
+    for (int i = 0; i < indices.length; i++) {
+      if (indices[i] == index) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public String toString() {
+    return toCharGrid().toString();
+  }
+}
@@ -0,0 +1,191 @@
+package com.rips7.util;
+
+import com.rips7.util.Util.Direction;
+import com.rips7.util.Util.Offset;
+import com.rips7.util.Util.Position;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Primitive encodings of grid coordinates, which need no allocation to step around and key primitive collections and
+ * arrays directly.
+ * <ul>
+ *   <li>A <b>packed</b> coordinate is a {@code long} with the row in the high 32 bits and the column in the low 32
+ *   bits. It works for any coordinates, including negative ones and ones outside of a grid.</li>
+ *   <li>A <b>dense index</b> is {@code row * cols + col}, an {@code int} in {@code [0, rows * cols)} that only exists
+ *   for cells within a grid, and indexes flat arrays (visited flags, distances...) of {@code rows * cols} cells.</li>
+ * </ul>
+ * {@link Position} stays the readable form of a coordinate at the edges of the code.
+ */
+public final class Coords {
+
+  /**
+   * The dense index of the steps that leave the grid
+   */
+  public static final int OUTSIDE = -1;
+
+  private Coords() {
+  }
+
+  public static long pack(final int row, final int col) {
+    return ((long) row << 32) | (col & 0xFFFFFFFFL);
+  }
+
+  public static long pack(final Position pos) {
+    return pack(pos.x(), pos.y());
+  }
+
+  public static int row(final long packed) {
+    return (int) (packed >> 32);
+  }
+
+  public static int col(final long packed) {
+    return (int) packed;
+  }
+
+  public static long apply(final long packed, final Offset offset) {
+    return pack(row(packed) + offset.dr(), col(packed) + offset.dc());
+  }
+
+  public static long apply(final long packed, final Direction dir) {
+    return apply(packed, dir.offset());
+  }
+
+  public static boolean isWithin(final long packed, final int rows, final int cols) {
+    return Util.isWithinGrid(row(packed), col(packed), rows, cols);
+  }
+
+  /**
+   * Gets the dense index of a cell
+   *
+   * @param row  the row
+   * @param col  the column
+   * @param cols the number of columns of the grid
+   * @return the dense index
+   */
+  public static int index(final int row, final int col, final int cols) {
+    return row * cols + col;
+  }
+
+  public static int index(final Position pos, final int cols) {
+    return index(pos.x(), pos.y(), cols);
+  }
+
+  public static int rowOf(final int index, final int cols) {
+    return index / cols;
+  }
+
+  public static int colOf(final int index, final int cols) {
+    return index % cols;
+  }
+
+  public static Position positionOf(final int index, final int cols) {
+    return Position.of(rowOf(index, cols), colOf(index, cols));
+  }
+
+  /**
+   * Steps from a cell to its neighbour at the given offset
+   *
+   * @param index  the dense index of the cell
+   * @param offset the offset
+   * @param rows   the number of rows of the grid
+   * @param cols   the number of columns of the grid
+   * @return the dense index of the neighbour, or {@link #OUTSIDE} if the neighbour is not within the grid
+   */
+  public static int step(final int index, final Offset offset, final int rows, final int cols) {
+    final int row = rowOf(index, cols) + offset.dr();
+    final int col = colOf(index, cols) + offset.dc();
+    return Util.isWithinGrid(row, col, rows, cols) ? index(row, col, cols) : OUTSIDE;
+  }
+
+  public static int step(final int index, final Direction dir, final int rows, final int cols) {
+    return step(index, dir.offset(), rows, cols);
+  }
+
+  /**
+   * A reusable cursor over the neighbours of a cell that are within a grid, by dense index, which is created once per
+   * search and pointed at each cell in turn, so that walking a grid does not allocate
+   * <pre>
+   *   final Coords.Neighbours neighbours = new Coords.Neighbours(Offset.getOrthogonal(), rows, cols);
+   *   for (neighbours.of(current); neighbours.hasNext(); ) {
+   *     final int next = neighbours.next();
+   *     ...
+   *   }
+   * </pre>
+   */
+  public static final class Neighbours {
+
+    private final int[] drs;
+    private final int[] dcs;
+    private final int rows;
+    private final int cols;
+    private int row;
+    private int col;
+    private int cursor;
+    private int pending = OUTSIDE;
+
+    /**
+     * Creates a cursor
+     *
+     * @param offsets the offsets of the neighbours, in the order to visit them
+     * @param rows    the number of rows of the grid
+     * @param cols    the number of columns of the grid
+     */
+    public Neighbours(final List<Offset> offsets, final int rows, final int cols) {
+      this.drs = new int[offsets.size()];
+      this.dcs = new int[offsets.size()];
+      for (int i = 0; i < offsets.size(); i++) {
+        drs[i] = Offset.drOf(offsets.get(i).ordinal());
+        dcs[i] = Offset.dcOf(offsets.get(i).ordinal());
+      }
+      this.rows = rows;
+      this.cols = cols;
+      this.cursor = offsets.size();
+    }
+
+    /**
+     * Points the cursor at the neighbours of a cell, restarting it
+     *
+     * @param index the dense index of the cell
+     * @return this cursor
+     */
+    public Neighbours of(final int index) {
+      row = rowOf(index, cols);
+      col = colOf(index, cols);
+      cursor = 0;
+      pending = OUTSIDE;
+      return this;
+    }
+
+    /**
+     * Skips the neighbours that are not within the grid, up to the next one that is
+     *
+     * @return true if there is a neighbour left, false otherwise
+     */
+    public boolean hasNext() {
+      while (pending == OUTSIDE && cursor < drs.length) {
+        final int nextRow = row + drs[cursor];
+        final int nextCol = col + dcs[cursor];
+        cursor++;
+        if (Util.isWithinGrid(nextRow, nextCol, rows, cols)) {
+          pending = index(nextRow, nextCol, cols);
+        }
+      }
+      return pending != OUTSIDE;
+    }
+
+    /**
+     * @return the dense index of the next neighbour that is within the grid
+     * @throws NoSuchElementException if there is no neighbour left
+     */
+    public int next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No neighbour left");
+      }
+      final int next = pending;
+      pending = OUTSIDE;
+      return next;
+    }
+  }
+}
@@ -0,0 +1,237 @@
+package com.rips7.util;
+
+import com.rips7.util.CharGrid.CellConsumer;
+import com.rips7.util.Util.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link CharGrid} that also indexes its cells by character, so that {@link #find}, {@link #findAll} and
+ * {@link #count} do not scan the grid. The index is built in one pass when the grid is wrapped, and is kept up to date
+ * by {@link #set}, so that simulations that move characters around can keep querying it.
+ * <p>
+ * For every character there is an array of the dense indices (see {@link Coords}) of its cells, in no particular order,
+ * and for every cell there is its slot within the array of its character, so that a cell changes character by swapping
+ * the last cell of its old character into its slot, in constant time.
+ */
+public final class IndexedCharGrid {
+
+  private static final int VALUES = 256;
+  private static final int MIN_CELLS = 16;
+
+  private final CharGrid grid;
+  private final int[][] cellsByValue = new int[VALUES][];
+  private final int[] counts = new int[VALUES];
+  private final int[] slots;
+
+  private IndexedCharGrid(final CharGrid grid) {
+    this.grid = grid;
+    this.slots = new int[grid.size()];
+    final int cols = grid.cols();
+    grid.forEach((value, r, c) -> add(Coords.index(r, c, cols), value));
+  }
+
+  /**
+   * Parses a grid with one row per line, and indexes it
+   *
+   * @param input   the input
+   * @param outside the character of the cells outside the grid
+   * @return the {@link IndexedCharGrid}
+   */
+  public static IndexedCharGrid parse(final String input, final char outside) {
+    return of(CharGrid.parse(input, outside));
+  }
+
+  /**
+   * Indexes a grid, which becomes owned by the indexed grid: it must only be changed through {@link #set} from now on
+   *
+   * @param grid the {@link CharGrid}
+   * @return the {@link IndexedCharGrid}
+   */
+  public static IndexedCharGrid of(final CharGrid grid) {
+    return new IndexedCharGrid(grid);
+  }
+
+  /**
+   * Gets the underlying grid, for code that only reads it. Changing it directly leaves the index stale.
+   *
+   * @return the {@link CharGrid}
+   */
+  public CharGrid grid() {
+    return grid;
+  }
+
+  public int rows() {
+    return grid.rows();
+  }
+
+  public int cols() {
+    return grid.cols();
+  }
+
+  public int size() {
+    return grid.size();
+  }
+
+  public boolean isWithin(final int row, final int col) {
+    return grid.isWithin(row, col);
+  }
+
+  public boolean isWithin(final Position pos) {
+    return grid.isWithin(pos);
+  }
+
+  public char get(final int row, final int col) {
+    return grid.get(row, col);
+  }
+
+  public char get(final Position pos) {
+    return grid.get(pos);
+  }
+
+  public char getUnchecked(final int row, final int col) {
+    return grid.getUnchecked(row, col);
+  }
+
+  public char getAt(final int index) {
+    return grid.getAt(index);
+  }
+
+  public int index(final int row, final int col) {
+    return grid.index(row, col);
+  }
+
+  public int index(final Position pos) {
+    return grid.index(pos);
+  }
+
+  /**
+   * Sets the character of a cell, and moves the cell to the index of its new character
+   *
+   * @param row   the row
+   * @param col   the column
+   * @param value the character
+   * @throws IndexOutOfBoundsException if the cell is not within the grid
+   */
+  public void set(final int row, final int col, final char value) {
+    if (!isWithin(row, col)) {
+      throw new IndexOutOfBoundsException("(%s, %s) is outside the %sx%s grid".formatted(row, col, rows(), cols()));
+    }
+    setAt(index(row, col), value);
+  }
+
+  public void set(final Position pos, final char value) {
+    set(pos.x(), pos.y(), value);
+  }
+
+  /**
+   * Sets the character of a cell by its dense index, and moves the cell to the index of its new character
+   *
+   * @param index the dense index
+   * @param value the character
+   */
+  public void setAt(final int index, final char value) {
+    final char previous = grid.getAt(index);
+    grid.setAt(index, value);
+    // The grid keeps the low byte of the character, so the index does too
+    if (key(previous) != key(value)) {
+      remove(index, previous);
+      add(index, value);
+    }
+  }
+
+  /**
+   * Counts the cells with the given character
+   *
+   * @param value the character
+   * @return the number of cells
+   */
+  public int count(final char value) {
+    return counts[key(value)];
+  }
+
+  /**
+   * Finds the dense index of a cell with the given character
+   *
+   * @param value the character
+   * @return the dense index of one of the cells, which is the only one for a character that appears once
+   * @throws RuntimeException if no cell has the character
+   */
+  public int findIndex(final char value) {
+    final int key = key(value);
+    if (counts[key] == 0) {
+      throw new RuntimeException("Cannot find %s in the grid".formatted(value));
+    }
+    return cellsByValue[key][0];
+  }
+
+  /**
+   * Finds a cell with the given character
+   *
+   * @param value the character
+   * @return the {@link Position} of one of the cells, which is the only one for a character that appears once
+   * @throws RuntimeException if no cell has the character
+   */
+  public Position find(final char value) {
+    return Coords.positionOf(findIndex(value), cols());
+  }
+
+  /**
+   * Finds all the cells with the given character, in row-major order
+   *
+   * @param value the character
+   * @return the {@link Position}s of the cells
+   */
+  public List<Position> findAll(final char value) {
+    final int key = key(value);
+    final int[] indices = counts[key] == 0 ? new int[0] : Arrays.copyOf(cellsByValue[key], counts[key]);
+    Arrays.sort(indices);
+    final List<Position> positions = new ArrayList<>(indices.length);
+    for (final int index : indices) {
+      positions.add(Coords.positionOf(index, cols()));
+    }
+    return positions;
+  }
+
+  /**
+   * Visits every cell, in row-major order
+   *
+   * @param visitor the visitor of each cell
+   */
+  public void forEach(final CellConsumer visitor) {
+    grid.forEach(visitor);
+  }
+
+  private void add(final int index, final char value) {
+    final int key = key(value);
+    int[] cells = cellsByValue[key];
+    if (cells == null) {
+      cells = cellsByValue[key] = new int[MIN_CELLS];
+    } else if (counts[key] == cells.length) {
+      cells = cellsByValue[key] = Arrays.copyOf(cells, Math.min(2 * cells.length, slots.length));
+    }
+    slots[index] = counts[key];
+    cells[counts[key]++] = index;
+  }
+
+  private void remove(final int index, final char value) {
+    final int key = key(value);
+    final int[] cells = cellsByValue[key];
+    // Move the last cell of the character into the slot of the removed one
+    final int slot = slots[index];
+    final int last = cells[--counts[key]];
+    cells[slot] = last;
+    slots[last] = slot;
+  }
+
+  private static int key(final char value) {
+    return value & 0xFF;
+  }
+
+  @Override
+  public String toString() {
+    return grid.toString();
+  }
+}
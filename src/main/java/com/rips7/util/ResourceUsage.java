@@ -0,0 +1,179 @@
+package com.rips7.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The resources used while running some code
+ * <p>
+ * The allocated bytes are those of the calling thread only: work that the code forks onto other threads, such as
+ * parallel streams or tasks on the common {@link java.util.concurrent.ForkJoinPool}, is not counted.
+ * <p>
+ * The peak heap and the garbage collections are process-wide, so they are only measured when no other measurement
+ * started or was running at the same time, e.g. in a sequential run. Otherwise they would charge each measurement for
+ * the garbage of the others, and they are {@link #NOT_MEASURED} instead.
+ *
+ * @param allocatedBytes the bytes allocated by the calling thread, per run
+ * @param peakHeapBytes  the peak heap usage of the whole process while running, or {@link #NOT_MEASURED}
+ * @param gcCount        the number of garbage collections of the whole process while running, or
+ *                       {@link #NOT_MEASURED}
+ * @param gcTimeMillis   the time spent in garbage collections of the whole process while running, as reported by the
+ *                       collectors (milliseconds), or {@link #NOT_MEASURED}
+ */
+public record ResourceUsage(long allocatedBytes, long peakHeapBytes, long gcCount, long gcTimeMillis) {
+
+  /**
+   * The value of the process-wide measurements that overlapped with other measurements
+   */
+  public static final long NOT_MEASURED = -1;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+    ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads &&
+      threads.isThreadAllocatedMemorySupported() ? threads : null;
+
+  private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+    .filter(pool -> pool.getType() == MemoryType.HEAP)
+    .toList();
+
+  private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+  /**
+   * The number of measurements that are running
+   */
+  private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+  /**
+   * The number of measurements that have been started, to tell whether another one started during a measurement
+   */
+  private static final AtomicLong STARTED = new AtomicLong();
+
+  /**
+   * Starts measuring the resources used by the current thread
+   *
+   * @return the {@link Probe} to stop measuring with
+   */
+  public static Probe start() {
+    // Only reset the peak of the heap when no other measurement relies on it
+    final boolean alone = ACTIVE.getAndIncrement() == 0;
+    if (alone) {
+      HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+    return new Probe(Thread.currentThread(), alone, STARTED.incrementAndGet(), currentAllocatedBytes(),
+      currentGcCount(), currentGcTimeMillis());
+  }
+
+  private static long currentAllocatedBytes() {
+    return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+  }
+
+  private static long currentPeakHeapBytes() {
+    return HEAP_POOLS.stream()
+      .mapToLong(pool -> pool.getPeakUsage().getUsed())
+      .sum();
+  }
+
+  private static long currentGcCount() {
+    // Collectors report -1 when the count is undefined
+    return COLLECTORS.stream()
+      .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+      .filter(count -> count > 0)
+      .sum();
+  }
+
+  private static long currentGcTimeMillis() {
+    return COLLECTORS.stream()
+      .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+      .filter(time -> time > 0)
+      .sum();
+  }
+
+  /**
+   * Formats a number of bytes in a human-readable way
+   *
+   * @param bytes the number of bytes
+   * @return the formatted size
+   */
+  public static String formatBytes(final long bytes) {
+    if (bytes < 1024) {
+      return "%s B".formatted(bytes);
+    }
+    if (bytes < 1024 * 1024) {
+      return "%.1f KB".formatted(bytes / 1024.0);
+    }
+    if (bytes < 1024L * 1024 * 1024) {
+      return "%.1f MB".formatted(bytes / (1024.0 * 1024));
+    }
+    return "%.2f GB".formatted(bytes / (1024.0 * 1024 * 1024));
+  }
+
+  /**
+   * @return true if the process-wide measurements were taken, false if they overlapped with other measurements
+   */
+  public boolean isProcessWideMeasured() {
+    return gcCount != NOT_MEASURED;
+  }
+
+  @Override
+  public String toString() {
+    if (!isProcessWideMeasured()) {
+      return "allocated %s".formatted(formatBytes(allocatedBytes));
+    }
+    return "allocated %s, %s GC%s (%s ms)".formatted(
+      formatBytes(allocatedBytes), gcCount, gcCount == 1 ? "" : "s", gcTimeMillis);
+  }
+
+  /**
+   * A started measurement
+   *
+   * @param thread              the measured thread
+   * @param alone               whether no other measurement was running when this one started
+   * @param sequence            the number of measurements started up to this one
+   * @param startAllocatedBytes the bytes allocated by the thread when the measurement started
+   * @param startGcCount        the number of garbage collections when the measurement started
+   * @param startGcTimeMillis   the time spent in garbage collections when the measurement started
+   */
+  public record Probe(Thread thread, boolean alone, long sequence, long startAllocatedBytes, long startGcCount,
+                      long startGcTimeMillis) {
+
+    /**
+     * Stops measuring. Must be called from the thread that started the measurement.
+     *
+     * @param runs the number of runs to average the allocated bytes over
+     * @return the {@link ResourceUsage}
+     */
+    public ResourceUsage stop(final int runs) {
+      checkThread();
+      final long allocatedBytes = (currentAllocatedBytes() - startAllocatedBytes) / runs;
+      // The process-wide values are only this measurement's if no other one was running, or started, meanwhile
+      final boolean exclusive = ACTIVE.getAndDecrement() == 1 && alone && STARTED.get() == sequence;
+      if (!exclusive) {
+        return new ResourceUsage(allocatedBytes, NOT_MEASURED, NOT_MEASURED, NOT_MEASURED);
+      }
+      return new ResourceUsage(
+        allocatedBytes,
+        currentPeakHeapBytes(),
+        currentGcCount() - startGcCount,
+        currentGcTimeMillis() - startGcTimeMillis);
+    }
+
+    /**
+     * Stops measuring without a result, when the measured code failed. Must be called from the thread that started the
+     * measurement.
+     */
+    public void discard() {
+      checkThread();
+      ACTIVE.decrementAndGet();
+    }
+
+    private void checkThread() {
+      if (Thread.currentThread() != thread) {
+        throw new IllegalStateException("Probe started on %s, stopped on %s".formatted(thread, Thread.currentThread()));
+      }
+    }
+  }
+}
@@ -1,18 +1,27 @@
 package com.rips7.util;
 
+import com.rips7.util.concurrent.CancellationToken;
 import com.rips7.util.maths.Maths.Vector2D;
+import com.rips7.util.metrics.LongAdderRegistry;
+import com.rips7.util.metrics.Metrics;
+import com.rips7.util.metrics.MetricsRegistry;
+import com.rips7.util.metrics.MetricsSnapshot;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serial;
 import java.lang.reflect.Array;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -53,39 +62,156 @@ public class Util {
     DOWN_LEFT(Vector2D.of(1, -1)),
     LEFT_UP(Vector2D.of(-1, -1));
 
+    /**
+     * The number of offsets. Hot loops run over the ordinals {@code [0, COUNT)} with {@link #drOf(int)} and
+     * {@link #dcOf(int)}, instead of over the offsets.
+     */
+    public static final int COUNT = 8;
+
+    /**
+     * The number of orthogonal offsets, which are declared first, so that their ordinals are {@code [0, ORTHOGONAL)}
+     * and the diagonal offsets have the rest
+     */
+    public static final int ORTHOGONAL = 4;
+
+    private static final Offset[] VALUES = values();
+    private static final int[] DR = Arrays.stream(VALUES).mapToInt(offset -> offset.value.x()).toArray();
+    private static final int[] DC = Arrays.stream(VALUES).mapToInt(offset -> offset.value.y()).toArray();
+    private static final List<Offset> ORTHOGONAL_OFFSETS = List.of(UP, RIGHT, DOWN, LEFT);
+    private static final List<Offset> DIAGONAL_OFFSETS = List.of(UP_RIGHT, RIGHT_DOWN, DOWN_LEFT, LEFT_UP);
+    private static final List<Offset> ALL = List.of(VALUES);
+
     private final Vector2D<Integer> value;
 
     Offset(final Vector2D<Integer> value) {
       this.value = value;
     }
 
+    /**
+     * Gets an offset by its ordinal, without copying {@link #values()}
+     *
+     * @param ordinal the ordinal
+     * @return the {@link Offset}
+     */
+    public static Offset of(final int ordinal) {
+      return VALUES[ordinal];
+    }
+
+    /**
+     * Gets the change of the row of an offset from the shared table
+     *
+     * @param ordinal the ordinal of the offset
+     * @return the change of the row
+     */
+    public static int drOf(final int ordinal) {
+      return DR[ordinal];
+    }
+
+    /**
+     * Gets the change of the column of an offset from the shared table
+     *
+     * @param ordinal the ordinal of the offset
+     * @return the change of the column
+     */
+    public static int dcOf(final int ordinal) {
+      return DC[ordinal];
+    }
+
+    /**
+     * @return all the offsets, in declaration order
+     */
     public static List<Offset> getOffsets() {
-      return Arrays.stream(values()).toList();
+      return ALL;
+    }
+
+    /**
+     * @return the four orthogonal offsets, clockwise from {@link #UP}
+     */
+    public static List<Offset> getOrthogonal() {
+      return ORTHOGONAL_OFFSETS;
+    }
+
+    /**
+     * @return the four diagonal offsets, clockwise from {@link #UP_RIGHT}
+     */
+    public static List<Offset> getDiagonal() {
+      return DIAGONAL_OFFSETS;
+    }
+
+    /**
+     * @return the change of the row
+     */
+    public int dr() {
+      return DR[ordinal()];
+    }
+
+    /**
+     * @return the change of the column
+     */
+    public int dc() {
+      return DC[ordinal()];
     }
   }
 
-  public record Position(Vector2D<Integer> value) implements Comparable<Position> {
+  /**
+   * A cell of a grid, as a row ({@code x}) and a column ({@code y}). Hot loops work on the primitive encodings of
+   * {@link Coords} instead, and convert to positions at their edges.
+   *
+   * @param x the row
+   * @param y the column
+   */
+  public record Position(int x, int y) implements Comparable<Position> {
+
+    /**
+     * Creates a position from a vector of a row and a column, as positions were created before they held primitives
+     *
+     * @param value the vector of the row ({@code x}) and the column ({@code y})
+     */
+    public Position(final Vector2D<Integer> value) {
+      this(value.x(), value.y());
+    }
+
     public static Position of(final int i, final int j) {
-      return new Position(Vector2D.of(i, j));
+      return new Position(i, j);
+    }
+
+    public static Position of(final Vector2D<Integer> value) {
+      return new Position(value);
+    }
+
+    public static Position of(final long packed) {
+      return new Position(Coords.row(packed), Coords.col(packed));
     }
 
     public Position apply(final Offset offset) {
-      return new Position(Vector2D.add(this.value, offset.value, Integer::sum));
+      return new Position(x + offset.dr(), y + offset.dc());
+    }
+
+    public long pack() {
+      return Coords.pack(x, y);
     }
 
-    public int x() {
-      return value.x();
+    /**
+     * @return the position as a vector of the row ({@code x}) and the column ({@code y}), as it was held before
+     * @see #toVector()
+     */
+    public Vector2D<Integer> value() {
+      return toVector();
     }
 
-    public int y() {
-      return value.y();
+    /**
+     * Converts the position to a vector, for code written against the boxed representation. The vector is created on
+     * every call, so hot loops should use {@link #x()} and {@link #y()}.
+     *
+     * @return the vector of the row ({@code x}) and the column ({@code y})
+     */
+    public Vector2D<Integer> toVector() {
+      return Vector2D.of(x, y);
     }
 
     @Override
     public int compareTo(final Position o) {
-      return Comparator.comparingInt((Position p) -> p.value.x())
-          .thenComparingInt(p -> p.value.y())
-          .compare(this, o);
+      return x != o.x ? Integer.compare(x, o.x) : Integer.compare(y, o.y);
     }
   }
 
@@ -99,12 +225,21 @@ public class Util {
     LEFT(Offset.LEFT),
     LEFT_UP(Offset.LEFT_UP);
 
+    private static final List<Direction> ALL = List.of(values());
+
     final Offset offset;
 
     Direction(final Offset offset) {
       this.offset = offset;
     }
 
+    /**
+     * @return all the directions, clockwise from {@link #UP}
+     */
+    public static List<Direction> getDirections() {
+      return ALL;
+    }
+
     public Offset offset() {
       return offset;
     }
@@ -123,7 +258,16 @@ public class Util {
     }
 
     public Direction rotateNeg90() {
-      return rotate90().rotate90().rotate90();
+      return switch(this) {
+        case UP -> LEFT;
+        case UP_RIGHT -> LEFT_UP;
+        case RIGHT -> UP;
+        case RIGHT_DOWN -> UP_RIGHT;
+        case DOWN -> RIGHT;
+        case DOWN_LEFT -> RIGHT_DOWN;
+        case LEFT -> DOWN;
+        case LEFT_UP -> DOWN_LEFT;
+      };
     }
   }
 
@@ -229,46 +373,236 @@ public class Util {
   }
 
   public static <T> TimedResult<T> time(final Callable<T> runnable) {
-    final long start = System.currentTimeMillis();
-    final T res;
+    return time(runnable, 0, 1);
+  }
+
+  /**
+   * Times the given callable by running it {@code warmups} times without measuring, and then {@code iterations} times
+   * measuring each run with {@link System#nanoTime()}. When {@link Metrics} are enabled, the measured runs report to a
+   * new registry, and the counters are averaged over the runs.
+   *
+   * @param runnable   the callable to time
+   * @param warmups    the number of runs to discard
+   * @param iterations the number of measured runs
+   * @return the result of the last run, along with the {@link TimingStats}, {@link ResourceUsage} and
+   *         {@link MetricsSnapshot} of the measured runs
+   * @param <T> the type of the result
+   */
+  public static <T> TimedResult<T> time(final Callable<T> runnable, final int warmups, final int iterations) {
+    if (iterations < 1) {
+      throw new IllegalArgumentException("At least one measured run is needed, got %s".formatted(iterations));
+    }
+    T res;
+    final long[] samples = new long[iterations];
+    final ResourceUsage usage;
+    final MetricsRegistry registry = Metrics.isEnabled() ? new LongAdderRegistry() : MetricsRegistry.NOOP;
     try {
-      res = runnable.call();
+      for (int i = 0; i < warmups; i++) {
+        runnable.call();
+      }
+      final ResourceUsage.Probe probe = ResourceUsage.start();
+      try {
+        res = Metrics.call(registry, () -> {
+          T last = null;
+          for (int i = 0; i < iterations; i++) {
+            final long start = System.nanoTime();
+            last = runnable.call();
+            samples[i] = System.nanoTime() - start;
+          }
+          return last;
+        });
+      } catch (final Exception | Error e) {
+        probe.discard();
+        throw e;
+      }
+      usage = probe.stop(iterations);
+    } catch (final RuntimeException e) {
+      throw e;
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
-    final long end = System.currentTimeMillis();
-    final long diff = end - start;
-    if (diff < 1_000) { // less than a second
-      return new TimedResult<>(res, "Took %s ms".formatted(diff));
-    } else if (diff < 60_000) { // less than a minute
-      long millis = diff;
-      final long seconds = millis / 1_000;
-      millis -= seconds * 1_000;
-      return new TimedResult<>(res, "Took %s sec, %s ms".formatted(seconds, millis));
-    } else {
-      long millis = diff;
-      final long minutes = millis / 60_000;
-      millis -= minutes * 60_000;
+    return new TimedResult<>(res, TimingStats.of(samples), usage, registry.snapshot().perRun(iterations));
+  }
+
+  /**
+   * Formats a duration in a human-readable way, with sub-millisecond precision for durations less than a second
+   *
+   * @param nanos the duration in nanoseconds
+   * @return the formatted duration
+   */
+  public static String formatDuration(final long nanos) {
+    if (nanos < 1_000_000_000L) { // less than a second
+      return "%.3f ms".formatted(nanos / 1_000_000.0);
+    }
+    long millis = nanos / 1_000_000;
+    if (millis < 60_000) { // less than a minute
       final long seconds = millis / 1_000;
       millis -= seconds * 1_000;
-      return new TimedResult<>(res, "Took %s min, %s sec, %s ms".formatted(minutes, seconds, millis));
+      return "%s sec, %s ms".formatted(seconds, millis);
     }
+    final long minutes = millis / 60_000;
+    millis -= minutes * 60_000;
+    final long seconds = millis / 1_000;
+    millis -= seconds * 1_000;
+    return "%s min, %s sec, %s ms".formatted(minutes, seconds, millis);
   }
 
   public static void printColor(final String text, final AnsiColor col) {
     System.out.printf("%s%s%s", col, text, AnsiColor.RESET);
   }
 
+  public static void loop2D(final int rows, final int cols, final IntIntConsumer cb) {
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        cb.accept(r, c);
+      }
+    }
+  }
+
+  /**
+   * Visits every cell of a grid with boxed indices
+   *
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @param cb   the visitor of each cell
+   * @deprecated use {@link #loop2D(int, int, IntIntConsumer)}, which does not box the indices. An implicitly typed
+   * lambda matches both overloads, so it needs explicit parameter types, e.g. {@code (int r, int c) -> ...}
+   */
+  @Deprecated
   public static void loop2D(final int rows, final int cols, final BiConsumer<Integer, Integer> cb) {
-    IntStream.range(0, rows).forEach(r -> IntStream.range(0, cols).forEach(c -> cb.accept(r, c)));
+    loop2D(rows, cols, (final int r, final int c) -> cb.accept(r, c));
   }
 
   public static <T> void loop2D(final T[][] arr, final Consumer<T> cb) {
-    IntStream.range(0, arr.length).forEach(r -> IntStream.range(0, arr[r].length).forEach(c -> cb.accept(arr[r][c])));
+    for (final T[] row : arr) {
+      for (final T e : row) {
+        cb.accept(e);
+      }
+    }
+  }
+
+  public static <T> void loop2D(final T[][] arr, final CellVisitor<T> cb) {
+    for (int r = 0; r < arr.length; r++) {
+      for (int c = 0; c < arr[r].length; c++) {
+        cb.accept(arr[r][c], r, c);
+      }
+    }
   }
 
+  /**
+   * Visits every cell of a grid with its value and boxed indices
+   *
+   * @param arr the grid
+   * @param cb  the visitor of each cell
+   * @param <T> the type of the values
+   * @deprecated use {@link #loop2D(Object[][], CellVisitor)}, which does not box the indices. An implicitly typed
+   * lambda matches both overloads, so it needs explicit parameter types, e.g. {@code (T e, int r, int c) -> ...}
+   */
+  @Deprecated
   public static <T> void loop2D(final T[][] arr, final TriConsumer<T, Integer, Integer> cb) {
-    IntStream.range(0, arr.length).forEach(r -> IntStream.range(0, arr[r].length).forEach(c -> cb.accept(arr[r][c], r, c)));
+    loop2D(arr, (final T e, final int r, final int c) -> cb.accept(e, r, c));
+  }
+
+  /**
+   * Visits every cell of a grid in parallel like {@link #parallelSum2D(int, int, IntIntToLongFunction)}. The visitor
+   * must be safe to call from several threads at once, and the cells are visited in no particular order.
+   *
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @param cb   the visitor of each cell
+   */
+  public static void parallelLoop2D(final int rows, final int cols, final IntIntConsumer cb) {
+    parallelSum2D(rows, cols, (r, c) -> {
+      cb.accept(r, c);
+      return 0;
+    });
+  }
+
+  /**
+   * Sums a value over every cell of a grid, split into tiles of whole rows. The tiles run on the {@link ForkJoinPool}
+   * of the calling thread when it is a worker of one, such as a {@code DayScheduler}'s, so that they share its
+   * threads instead of adding the common pool's on top of them, and on the common pool otherwise. Each tile sums into a
+   * local, so counting is a sum of {@code 0}s and {@code 1}s without any shared counter. The tiles poll the
+   * {@link CancellationToken} of the calling thread between rows.
+   *
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @param fn   the value of each cell
+   * @return the sum of the values
+   */
+  public static long parallelSum2D(final int rows, final int cols, final IntIntToLongFunction fn) {
+    return parallelSum2D(rows, cols, () -> null, (state, r, c) -> fn.applyAsLong(r, c));
+  }
+
+  /**
+   * Sums a value over every cell of a grid like {@link #parallelSum2D(int, int, IntIntToLongFunction)}, with a state of
+   * each tile, such as a scratch buffer. Each tile creates its own state and visits its cells with it, one at a time,
+   * so the state needs no synchronization, and it is dropped with the tile instead of staying with the pool threads.
+   *
+   * @param rows  the number of rows
+   * @param cols  the number of columns
+   * @param state creates the state of a tile
+   * @param fn    the value of each cell, given the state of its tile
+   * @return the sum of the values
+   * @param <S> the type of the state
+   */
+  public static <S> long parallelSum2D(final int rows, final int cols, final Supplier<S> state,
+                                       final ObjIntIntToLongFunction<S> fn) {
+    final ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+    // A few tiles per thread, so that a slow tile does not leave the other threads idle
+    final int tileRows = Math.max(1, rows / (4 * pool.getParallelism()));
+    final RowTiles<S> tiles = new RowTiles<>(0, rows, cols, tileRows, state, fn, CancellationToken.current());
+    // From a worker, invoking pushes the tiles onto its own queue, where the other workers of its pool can steal them
+    return ForkJoinTask.inForkJoinPool() ? tiles.invoke() : pool.invoke(tiles);
+  }
+
+  /**
+   * Sums a function over a range of rows, splitting the range in halves until it is at most a tile
+   */
+  private static final class RowTiles<S> extends RecursiveTask<Long> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int fromRow;
+    private final int toRow;
+    private final int cols;
+    private final int tileRows;
+    // The tasks are never serialized, so neither are the functions and the token
+    private final transient Supplier<S> state;
+    private final transient ObjIntIntToLongFunction<S> fn;
+    private final transient CancellationToken token;
+
+    private RowTiles(final int fromRow, final int toRow, final int cols, final int tileRows, final Supplier<S> state,
+                     final ObjIntIntToLongFunction<S> fn, final CancellationToken token) {
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+      this.cols = cols;
+      this.tileRows = tileRows;
+      this.state = state;
+      this.fn = fn;
+      this.token = token;
+    }
+
+    @Override
+    protected Long compute() {
+      if (toRow - fromRow <= tileRows) {
+        final S tileState = state.get();
+        long sum = 0;
+        for (int r = fromRow; r < toRow; r++) {
+          token.checkpoint();
+          for (int c = 0; c < cols; c++) {
+            sum += fn.applyAsLong(tileState, r, c);
+          }
+        }
+        return sum;
+      }
+      final int middle = (fromRow + toRow) >>> 1;
+      final RowTiles<S> top = new RowTiles<>(fromRow, middle, cols, tileRows, state, fn, token);
+      top.fork();
+      final long bottom = new RowTiles<>(middle, toRow, cols, tileRows, state, fn, token).compute();
+      return top.join() + bottom;
+    }
   }
 
   public static <T> void print2DArray(final T[][] arr) {
@@ -328,7 +662,7 @@ public class Util {
 
   public static <T> T[][] copy2D(final Class<T> clazz, final T[][] arr) {
     final T[][] clone = newGeneric2DArray(clazz, arr.length, arr[0].length);
-    loop2D(arr, (e, r, c) -> clone[r][c] = e);
+    loop2D(arr, (final T e, final int r, final int c) -> clone[r][c] = e);
     return clone;
   }
 
@@ -378,7 +712,139 @@ public class Util {
     }
   }
 
-  public record TimedResult<T>(T res, String timeInfo) {}
+  public record TimedResult<T>(T res, TimingStats stats, ResourceUsage usage, MetricsSnapshot metrics) {
+
+    /**
+     * The answer of a part that ran out of time
+     */
+    private enum Outcome { TIMEOUT }
+
+    /**
+     * The answer of a part that failed
+     *
+     * @param cause the failure
+     */
+    private record Failure(Throwable cause) {
+      @Override
+      public String toString() {
+        return "ERROR (%s)".formatted(cause);
+      }
+    }
+
+    /**
+     * Creates the result of a part that was given up on after its time budget
+     *
+     * @param budgetNanos the time budget
+     * @return the {@link TimedResult}, whose answer prints as {@code TIMEOUT}
+     */
+    public static TimedResult<?> timeout(final long budgetNanos) {
+      return new TimedResult<>(Outcome.TIMEOUT, TimingStats.of(new long[] { budgetNanos }),
+        new ResourceUsage(0, 0, 0, 0), MetricsSnapshot.EMPTY);
+    }
+
+    /**
+     * @return true if the part ran out of time, false otherwise
+     */
+    public boolean isTimeout() {
+      return res == Outcome.TIMEOUT;
+    }
+
+    /**
+     * Creates the result of a part that failed
+     *
+     * @param cause the failure
+     * @return the {@link TimedResult}, whose answer prints as {@code ERROR} with the failure
+     */
+    public static TimedResult<?> error(final Throwable cause) {
+      return new TimedResult<>(new Failure(cause), TimingStats.of(new long[] { 0 }), new ResourceUsage(0, 0, 0, 0),
+        MetricsSnapshot.EMPTY);
+    }
+
+    /**
+     * @return true if the part failed, false otherwise
+     */
+    public boolean isError() {
+      return res instanceof Failure;
+    }
+
+    public String timeInfo() {
+      return timeInfo(true);
+    }
+
+    /**
+     * Describes the timing
+     *
+     * @param full whether to describe the full statistics of repeated runs, instead of only the median
+     * @return the description
+     */
+    public String timeInfo(final boolean full) {
+      if (isTimeout()) {
+        return "Gave up after %s".formatted(formatDuration(stats.minNanos()));
+      }
+      if (isError()) {
+        return "Failed";
+      }
+      if (stats.samples() == 1) {
+        return "Took %s".formatted(formatDuration(stats.minNanos()));
+      }
+      return full ?
+        stats.toString() :
+        "Took %s (median of %s runs)".formatted(formatDuration(stats.medianNanos()), stats.samples());
+    }
+  }
+
+  /**
+   * Statistics over a number of timed runs
+   *
+   * @param samples      the number of measured runs
+   * @param minNanos     the fastest run
+   * @param medianNanos  the median run
+   * @param p90Nanos     the 90th percentile
+   * @param p99Nanos     the 99th percentile
+   * @param maxNanos     the slowest run
+   * @param meanNanos    the mean
+   * @param stdDevNanos  the standard deviation
+   */
+  public record TimingStats(int samples, long minNanos, long medianNanos, long p90Nanos, long p99Nanos, long maxNanos,
+                            double meanNanos, double stdDevNanos) {
+
+    public static TimingStats of(final long[] samples) {
+      final long[] sorted = samples.clone();
+      Arrays.sort(sorted);
+      final double mean = Arrays.stream(sorted).average().orElse(0);
+      final double variance = Arrays.stream(sorted)
+        .mapToDouble(s -> (s - mean) * (s - mean))
+        .sum() / sorted.length;
+      return new TimingStats(
+        sorted.length,
+        sorted[0],
+        percentile(sorted, 0.5),
+        percentile(sorted, 0.9),
+        percentile(sorted, 0.99),
+        sorted[sorted.length - 1],
+        mean,
+        Math.sqrt(variance));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted samples
+     */
+    private static long percentile(final long[] sorted, final double p) {
+      final int rank = (int) Math.ceil(p * sorted.length);
+      return sorted[Math.max(0, rank - 1)];
+    }
+
+    @Override
+    public String toString() {
+      return "min %s, median %s, p90 %s, p99 %s, stddev %s over %s runs".formatted(
+        formatDuration(minNanos),
+        formatDuration(medianNanos),
+        formatDuration(p90Nanos),
+        formatDuration(p99Nanos),
+        formatDuration((long) stdDevNanos),
+        samples);
+    }
+  }
 
   @FunctionalInterface
   public interface TriConsumer<T,U,V> {
@@ -386,4 +852,44 @@ public class Util {
     void accept(T t, U u, V v);
   }
 
+  /**
+   * Visits a cell of a grid by its row and column, without boxing
+   */
+  @FunctionalInterface
+  public interface IntIntConsumer {
+
+    void accept(int row, int col);
+  }
+
+  /**
+   * Computes a value for a cell of a grid by its row and column, without boxing
+   */
+  @FunctionalInterface
+  public interface IntIntToLongFunction {
+
+    long applyAsLong(int row, int col);
+  }
+
+  /**
+   * Computes a value for a cell of a grid by its row and column, given some state, without boxing
+   *
+   * @param <S> the type of the state
+   */
+  @FunctionalInterface
+  public interface ObjIntIntToLongFunction<S> {
+
+    long applyAsLong(S state, int row, int col);
+  }
+
+  /**
+   * Visits a cell of a grid with its value, row and column, without boxing the indices
+   *
+   * @param <T> the type of the values
+   */
+  @FunctionalInterface
+  public interface CellVisitor<T> {
+
+    void accept(T value, int row, int col);
+  }
+
 }
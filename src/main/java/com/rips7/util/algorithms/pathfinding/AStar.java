@@ -1,5 +1,8 @@
 package com.rips7.util.algorithms.pathfinding;
 
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.jfr.SearchEvent;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -28,17 +31,26 @@ public class AStar<T> {
     gScore.put(startNode, 0.0f);
     fScore.put(startNode, heuristic.apply(start));
 
+    final SearchEvent event = SearchMetrics.begin("astar");
+    final CancellationToken token = CancellationToken.current();
+    long expanded = 0;
+    final long[] revisits = { 0 };
+    int peakFrontier = frontier.size();
     while (!frontier.isEmpty()) {
+      token.checkpoint();
       final AStarNode<T> current = frontier.poll();
       if (current.equals(endNode)) {
+        SearchMetrics.report(event, expanded, revisits[0], peakFrontier);
         return backtrack(current);
       }
+      expanded++;
       neighborsGetter.apply(current.data()).entrySet().stream()
         .map(entry -> {
           final AStarNode<T> neighbor = node(entry.getKey());
           final float cost = entry.getValue();
           final float tentativeGScore = gScore.get(current) + cost;
           if (tentativeGScore >= gScore.getOrDefault(neighbor, Float.MAX_VALUE)) {
+            revisits[0]++;
             return null;
           }
           neighbor.parent = current;
@@ -49,7 +61,9 @@ public class AStar<T> {
         .filter(Objects::nonNull)
         .filter(n -> !frontier.contains(n))
         .forEach(frontier::add);
+      peakFrontier = Math.max(peakFrontier, frontier.size());
     }
+    SearchMetrics.report(event, expanded, revisits[0], peakFrontier);
     throw new RuntimeException("No solution found");
   }
 
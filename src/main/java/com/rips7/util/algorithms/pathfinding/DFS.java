@@ -1,5 +1,8 @@
 package com.rips7.util.algorithms.pathfinding;
 
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.jfr.SearchEvent;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -28,21 +31,32 @@ public class DFS<T> {
     } else {
       frontier.add(startNode);
     }
+    final SearchEvent event = SearchMetrics.begin("dfs");
+    final CancellationToken token = CancellationToken.current();
+    long expanded = 0;
+    long revisits = 0;
+    int peakFrontier = frontier.size();
     while (!frontier.isEmpty()) {
+      token.checkpoint();
       final DFSNode<T> current = frontier.pop();
       if (current.equals(endNode)) {
+        SearchMetrics.report(event, expanded, revisits, peakFrontier);
         return backtrack(current);
       }
       if (closed.contains(current)) {
+        revisits++;
         continue;
       }
+      expanded++;
       neighborsGetter.apply(current.data()).stream()
           .map(DFS::node)
           .filter(n -> !Objects.equals(n, current.parent))
           .peek(n -> n.parent = current)
           .forEach(frontier::add);
+      peakFrontier = Math.max(peakFrontier, frontier.size());
       closed.add(current);
     }
+    SearchMetrics.report(event, expanded, revisits, peakFrontier);
     throw new RuntimeException("No solution found");
   }
 
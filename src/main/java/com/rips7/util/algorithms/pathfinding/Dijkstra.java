@@ -1,5 +1,7 @@
 package com.rips7.util.algorithms.pathfinding;
 
+import com.rips7.util.concurrent.CancellationToken;
+import com.rips7.util.jfr.SearchEvent;
 import com.rips7.util.maths.Combinatorics.Pair;
 
 import java.util.ArrayList;
@@ -24,20 +26,31 @@ public class Dijkstra<T> {
         final PriorityQueue<Node<T>> frontier = new PriorityQueue<>(Comparator.comparing(node -> node.cost.get()));
         frontier.add(new Node<>(start));
 
+        final SearchEvent event = SearchMetrics.begin("dijkstra");
+        final CancellationToken token = CancellationToken.current();
+        long expanded = 0;
+        long revisits = 0;
+        int peakFrontier = frontier.size();
         while(!frontier.isEmpty()) {
+            token.checkpoint();
             final Node<T> current = frontier.poll();
             if (endPredicate.test(current.data)) {
+                SearchMetrics.report(event, expanded, revisits, peakFrontier);
                 return Pair.of(backtrack(current), current.cost.get());
             }
             if (closedSet.contains(current.data)) {
+                revisits++;
                 continue;
             }
+            expanded++;
             closedSet.add(current.data);
             neighborGetter.apply(current.data, current.cost.get()).entrySet().stream()
                 .map((neighborAndCost) -> new Node<>(neighborAndCost.getKey(), neighborAndCost.getValue()))
                 .forEach(frontier::add);
+            peakFrontier = Math.max(peakFrontier, frontier.size());
         }
 
+        SearchMetrics.report(event, expanded, revisits, peakFrontier);
         throw new RuntimeException("No path to end");
     }
 
@@ -0,0 +1,52 @@
+package com.rips7.util.algorithms.pathfinding;
+
+import com.rips7.util.jfr.SearchEvent;
+import com.rips7.util.metrics.Metrics;
+import com.rips7.util.metrics.MetricsRegistry;
+
+/**
+ * Reports the work of a search to the bound {@link MetricsRegistry}, and as a {@link SearchEvent} to Flight Recorder.
+ * The searches count into local variables, and report once at the end, so that the loops are not slowed down when
+ * neither is enabled.
+ */
+final class SearchMetrics {
+
+  private SearchMetrics() { }
+
+  /**
+   * Starts timing a search
+   *
+   * @param algorithm the name of the algorithm, and the prefix of its metric names (e.g. {@code bfs})
+   * @return the begun {@link SearchEvent}
+   */
+  static SearchEvent begin(final String algorithm) {
+    final SearchEvent event = new SearchEvent();
+    event.algorithm = algorithm;
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Reports the work of a search
+   *
+   * @param event        the event returned by {@link #begin(String)}
+   * @param expanded     the number of nodes whose neighbors were expanded
+   * @param revisits     the number of nodes that were reached again after being expanded or improved
+   * @param peakFrontier the largest size of the frontier
+   */
+  static void report(final SearchEvent event, final long expanded, final long revisits, final long peakFrontier) {
+    if (event.shouldCommit()) {
+      event.expanded = expanded;
+      event.revisits = revisits;
+      event.peakFrontier = peakFrontier;
+      event.commit();
+    }
+    final MetricsRegistry metrics = Metrics.current();
+    if (metrics == MetricsRegistry.NOOP) {
+      return;
+    }
+    metrics.counter(event.algorithm + ".expanded").add(expanded);
+    metrics.counter(event.algorithm + ".revisits").add(revisits);
+    metrics.histogram(event.algorithm + ".frontier.peak").record(peakFrontier);
+  }
+}
@@ -0,0 +1,67 @@
+package com.rips7.util.collections;
+
+/**
+ * The hashing and sizing shared by the open-addressing collections. Tables have a power-of-two capacity and are kept
+ * at most half full, so that linear probing stays short.
+ */
+final class Hashing {
+
+  /**
+   * The smallest capacity of a table
+   */
+  static final int MIN_CAPACITY = 8;
+
+  /**
+   * The largest capacity of a table
+   */
+  static final int MAX_CAPACITY = 1 << 30;
+
+  private Hashing() {
+  }
+
+  /**
+   * Spreads the bits of a key, so that keys that differ only in their high bits (e.g. packed coordinates) do not
+   * collide in the low bits that index the table
+   *
+   * @param key the key
+   * @return the mixed hash
+   */
+  static int mix(final long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  static int mix(final int key) {
+    final int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Gets the capacity of a table that holds the given number of entries without resizing
+   *
+   * @param expected the expected number of entries
+   * @return the capacity
+   */
+  static int capacityFor(final int expected) {
+    if (expected < 0) {
+      throw new IllegalArgumentException("Invalid expected size %s".formatted(expected));
+    }
+    if (expected >= MAX_CAPACITY / 2) {
+      return MAX_CAPACITY;
+    }
+    return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, 2 * expected - 1)) << 1);
+  }
+
+  /**
+   * Gets the capacity a full table grows to
+   *
+   * @param capacity the current capacity
+   * @return the new capacity
+   */
+  static int grow(final int capacity) {
+    if (capacity >= MAX_CAPACITY) {
+      throw new IllegalStateException("The table cannot grow past %s slots".formatted(MAX_CAPACITY));
+    }
+    return capacity << 1;
+  }
+}
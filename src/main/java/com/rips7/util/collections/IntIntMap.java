@@ -0,0 +1,186 @@
+package com.rips7.util.collections;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * A map from {@code int} to {@code int}, with open addressing and linear probing over parallel {@code int[]}s of
+ * keys and values, so that lookups and updates do not box or allocate entries. Slots with the key {@code 0} are free,
+ * and the key {@code 0} is kept aside with a flag of its own.
+ */
+public final class IntIntMap {
+
+  private int[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+  private boolean hasZeroKey;
+  private int zeroValue;
+
+  public IntIntMap() {
+    this(Hashing.MIN_CAPACITY / 2);
+  }
+
+  /**
+   * Creates a map that holds the given number of entries without resizing
+   *
+   * @param expected the expected number of entries
+   */
+  public IntIntMap(final int expected) {
+    allocate(Hashing.capacityFor(expected));
+  }
+
+  /**
+   * Gets the value of a key
+   *
+   * @param key          the key
+   * @param defaultValue the value to return if the key is not in the map
+   * @return the value, or the default value
+   */
+  public int get(final int key, final int defaultValue) {
+    if (key == 0) {
+      return hasZeroKey ? zeroValue : defaultValue;
+    }
+    final int slot = find(key);
+    return keys[slot] == 0 ? defaultValue : values[slot];
+  }
+
+  public boolean containsKey(final int key) {
+    return key == 0 ? hasZeroKey : keys[find(key)] != 0;
+  }
+
+  /**
+   * Associates a value with a key, replacing any previous value
+   *
+   * @param key   the key
+   * @param value the value
+   */
+  public void put(final int key, final int value) {
+    if (key == 0) {
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      zeroValue = value;
+      return;
+    }
+    final int slot = find(key);
+    values[slot] = value;
+    if (keys[slot] == 0) {
+      keys[slot] = key;
+      grown();
+    }
+  }
+
+  /**
+   * Adds to the value of a key, which starts from {@code 0} if the key is not in the map
+   *
+   * @param key   the key
+   * @param delta the amount to add
+   * @return the new value
+   */
+  public int addTo(final int key, final int delta) {
+    if (key == 0) {
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      return zeroValue += delta;
+    }
+    final int slot = find(key);
+    if (keys[slot] != 0) {
+      return values[slot] += delta;
+    }
+    keys[slot] = key;
+    values[slot] = delta;
+    grown();
+    return delta;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all the entries, and keeps the capacity for reuse
+   */
+  public void clear() {
+    Arrays.fill(keys, 0);
+    hasZeroKey = false;
+    size = 0;
+  }
+
+  /**
+   * Visits every entry, in no particular order
+   *
+   * @param action the action for each entry
+   */
+  public void forEach(final EntryConsumer action) {
+    if (hasZeroKey) {
+      action.accept(0, zeroValue);
+    }
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != 0) {
+        action.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+  /**
+   * Finds the slot of a non-zero key, or the free slot to insert it at
+   *
+   * @param key the key
+   * @return the slot
+   */
+  private int find(final int key) {
+    int slot = Hashing.mix(key) & mask;
+    while (keys[slot] != 0 && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grown() {
+    if (++size * 2 > keys.length) {
+      rehash(Hashing.grow(keys.length));
+    }
+  }
+
+  private void allocate(final int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+  }
+
+  private void rehash(final int capacity) {
+    final int[] oldKeys = keys;
+    final int[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        final int slot = find(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+    forEach((key, value) -> joiner.add(key + "=" + value));
+    return joiner.toString();
+  }
+
+  /**
+   * Visits an entry of a {@link IntIntMap}, without boxing
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+    void accept(int key, int value);
+  }
+}
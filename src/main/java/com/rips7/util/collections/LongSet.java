@@ -0,0 +1,152 @@
+package com.rips7.util.collections;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A set of {@code long}s, with open addressing and linear probing over a single {@code long[]}, so that adding and
+ * looking up do not box the elements or allocate entries. Slots with {@code 0} are free, and the element {@code 0} is
+ * tracked with a flag of its own.
+ */
+public final class LongSet {
+
+  private long[] elements;
+  private int mask;
+  private int size;
+  private boolean hasZero;
+
+  public LongSet() {
+    this(Hashing.MIN_CAPACITY / 2);
+  }
+
+  /**
+   * Creates a set that holds the given number of elements without resizing
+   *
+   * @param expected the expected number of elements
+   */
+  public LongSet(final int expected) {
+    allocate(Hashing.capacityFor(expected));
+  }
+
+  /**
+   * Adds an element
+   *
+   * @param element the element
+   * @return true if the element was added, false if it was already in the set
+   */
+  public boolean add(final long element) {
+    if (element == 0) {
+      if (hasZero) {
+        return false;
+      }
+      hasZero = true;
+      size++;
+      return true;
+    }
+    int slot = Hashing.mix(element) & mask;
+    while (elements[slot] != 0) {
+      if (elements[slot] == element) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    elements[slot] = element;
+    if (++size * 2 > elements.length) {
+      rehash(Hashing.grow(elements.length));
+    }
+    return true;
+  }
+
+  public boolean contains(final long element) {
+    if (element == 0) {
+      return hasZero;
+    }
+    int slot = Hashing.mix(element) & mask;
+    while (elements[slot] != 0) {
+      if (elements[slot] == element) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all the elements, and keeps the capacity for reuse
+   */
+  public void clear() {
+    Arrays.fill(elements, 0);
+    hasZero = false;
+    size = 0;
+  }
+
+  /**
+   * Visits every element, in no particular order
+   *
+   * @param action the action for each element
+   */
+  public void forEach(final LongConsumer action) {
+    if (hasZero) {
+      action.accept(0);
+    }
+    for (final long element : elements) {
+      if (element != 0) {
+        action.accept(element);
+      }
+    }
+  }
+
+  /**
+   * @return a stream over a snapshot of the elements, in no particular order
+   */
+  public LongStream stream() {
+    return LongStream.of(toArray());
+  }
+
+  public long[] toArray() {
+    final long[] array = new long[size];
+    int i = 0;
+    if (hasZero) {
+      array[i++] = 0;
+    }
+    for (final long element : elements) {
+      if (element != 0) {
+        array[i++] = element;
+      }
+    }
+    return array;
+  }
+
+  private void allocate(final int capacity) {
+    elements = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  private void rehash(final int capacity) {
+    final long[] old = elements;
+    allocate(capacity);
+    for (final long element : old) {
+      if (element != 0) {
+        int slot = Hashing.mix(element) & mask;
+        while (elements[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        elements[slot] = element;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
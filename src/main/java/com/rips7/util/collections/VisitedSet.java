@@ -0,0 +1,121 @@
+package com.rips7.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * A dense set of visited grid cells, by their dense index (see {@link com.rips7.util.Coords}), as one bit per cell in
+ * a {@code long[]}. Each cell can optionally have a number of states, such as the four directions a cell was entered
+ * from, each with a bit of its own.
+ * <p>
+ * The set is cleared in constant time by moving on to a new epoch: every word is stamped with the epoch it was last
+ * written in, and a word with an older stamp reads as empty, so that a single instance can be reused across thousands
+ * of searches without reallocating or refilling its words.
+ */
+public final class VisitedSet {
+
+  private final long[] words;
+  private final int[] stamps;
+  private final int states;
+  private int epoch = 1;
+  private int size;
+
+  /**
+   * Creates a set of cells with a single state each
+   *
+   * @param cells the number of cells
+   */
+  public VisitedSet(final int cells) {
+    this(cells, 1);
+  }
+
+  /**
+   * Creates a set of cells with the given number of states each
+   *
+   * @param cells  the number of cells
+   * @param states the number of states of each cell
+   */
+  public VisitedSet(final int cells, final int states) {
+    if (cells < 0 || states < 1) {
+      throw new IllegalArgumentException("Invalid %s cells with %s states".formatted(cells, states));
+    }
+    final long bits = (long) cells * states;
+    if (bits > (long) Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many cells (%s) with %s states".formatted(cells, states));
+    }
+    this.states = states;
+    this.words = new long[(int) ((bits + 63) >>> 6)];
+    this.stamps = new int[words.length];
+  }
+
+  /**
+   * Marks a cell as visited
+   *
+   * @param cell the dense index of the cell
+   * @return true if the cell was not visited before, false otherwise
+   */
+  public boolean add(final int cell) {
+    return addBit(cell * states);
+  }
+
+  /**
+   * Marks a state of a cell as visited
+   *
+   * @param cell  the dense index of the cell
+   * @param state the state, in {@code [0, states)}
+   * @return true if the state of the cell was not visited before, false otherwise
+   */
+  public boolean add(final int cell, final int state) {
+    return addBit(cell * states + state);
+  }
+
+  public boolean contains(final int cell) {
+    return containsBit(cell * states);
+  }
+
+  public boolean contains(final int cell, final int state) {
+    return containsBit(cell * states + state);
+  }
+
+  /**
+   * @return the number of visited cells, or states of cells
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Forgets every visited cell, in constant time
+   */
+  public void clear() {
+    size = 0;
+    if (++epoch == 0) {
+      // The stamps have wrapped around, so stale words could read as current: reset them all once
+      Arrays.fill(stamps, 0);
+      epoch = 1;
+    }
+  }
+
+  private boolean addBit(final int bit) {
+    final int word = bit >>> 6;
+    if (stamps[word] != epoch) {
+      stamps[word] = epoch;
+      words[word] = 0;
+    }
+    final long mask = 1L << bit;
+    if ((words[word] & mask) != 0) {
+      return false;
+    }
+    words[word] |= mask;
+    size++;
+    return true;
+  }
+
+  private boolean containsBit(final int bit) {
+    final int word = bit >>> 6;
+    return stamps[word] == epoch && (words[word] & (1L << bit)) != 0;
+  }
+}
@@ -0,0 +1,128 @@
+package com.rips7.util.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A flag for cooperative cancellation. Long-running loops poll it with {@link #checkpoint()}, which throws a
+ * {@link CancellationException} once the token has been cancelled, so that a runaway computation gives its thread back
+ * instead of running to the end.
+ * <p>
+ * A task runs with a token bound to its thread (see {@link #call(Supplier)}), and code deep inside the task gets it with
+ * {@link #current()} without threading it through every call. Threads with no bound token get {@link #NONE}, which is
+ * never cancelled, so checkpoints cost a single volatile read when nothing can cancel them. Work that is handed to other
+ * threads (e.g. parallel streams) does not inherit the binding, so the token must be captured before forking:
+ * <pre>{@code
+ * final CancellationToken token = CancellationToken.current();
+ * IntStream.range(0, n).parallel().map(i -> {
+ *   token.checkpoint();
+ *   return ...;
+ * })
+ * }</pre>
+ */
+public final class CancellationToken {
+
+  /**
+   * The token of threads with no bound token, which is never cancelled
+   */
+  public static final CancellationToken NONE = new CancellationToken();
+
+  private static final ThreadLocal<CancellationToken> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+  private volatile boolean cancelled;
+
+  /**
+   * Gets the token bound to the current thread
+   *
+   * @return the bound {@link CancellationToken}, or {@link #NONE}
+   */
+  public static CancellationToken current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Polls the token bound to the current thread. Prefer capturing {@link #current()} once outside of hot loops.
+   *
+   * @throws CancellationException if the token has been cancelled
+   */
+  public static void poll() {
+    CURRENT.get().checkpoint();
+  }
+
+  /**
+   * Runs a task asynchronously with a new token bound to its thread. Completing the returned future exceptionally, by
+   * {@link CompletableFuture#cancel(boolean)}, {@link CompletableFuture#orTimeout} or otherwise, cancels the token, so
+   * that the task stops at its next checkpoint. A task that is cancelled before it starts does not run at all.
+   *
+   * @param task     the task
+   * @param executor the executor to run the task on
+   * @return the {@link CompletableFuture} of the result
+   * @param <T> the type of the result
+   */
+  public static <T> CompletableFuture<T> supplyAsync(final Supplier<T> task, final Executor executor) {
+    final CancellationToken token = new CancellationToken();
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    future.whenComplete((res, e) -> {
+      if (e != null) {
+        token.cancel();
+      }
+    });
+    executor.execute(() -> {
+      if (future.isDone()) {
+        return;
+      }
+      try {
+        future.complete(token.call(task));
+      } catch (final Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Runs a task on the current thread with this token bound to it, and restores the previous binding afterwards
+   *
+   * @param task the task
+   * @return the result of the task
+   * @param <T> the type of the result
+   */
+  public <T> T call(final Supplier<T> task) {
+    final CancellationToken previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return task.get();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Cancels the token. Tasks that poll it stop at their next checkpoint.
+   */
+  public void cancel() {
+    if (this != NONE) {
+      cancelled = true;
+    }
+  }
+
+  /**
+   * @return true if the token has been cancelled, false otherwise
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Stops the running task if the token has been cancelled
+   *
+   * @throws CancellationException if the token has been cancelled
+   */
+  public void checkpoint() {
+    if (cancelled) {
+      throw new CancellationException("Cancelled");
+    }
+  }
+}
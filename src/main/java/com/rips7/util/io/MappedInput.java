@@ -0,0 +1,62 @@
+package com.rips7.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loads inputs as read-only {@link ByteBuffer}s. Files on disk are memory-mapped, so that large inputs are paged in by
+ * the OS on demand instead of being copied into the heap and decoded into a {@link String}.
+ */
+public final class MappedInput {
+
+  private MappedInput() {
+  }
+
+  /**
+   * Memory-maps the given file
+   *
+   * @param path the path of the file
+   * @return a read-only buffer over the whole file
+   */
+  public static ByteBuffer map(final Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // The mapping stays valid after the channel is closed
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot map '%s'".formatted(path), e);
+    }
+  }
+
+  /**
+   * Loads the given classpath resource. Resources that live in a directory on disk are memory-mapped, while resources
+   * packaged in a jar are read into a heap buffer.
+   *
+   * @param name the absolute name of the resource
+   * @return a read-only buffer over the whole resource
+   */
+  public static ByteBuffer mapResource(final String name) {
+    final URL url = MappedInput.class.getResource(name);
+    if (url == null) {
+      throw new RuntimeException("No input file '%s'".formatted(name));
+    }
+    if ("file".equals(url.getProtocol())) {
+      try {
+        return map(Path.of(url.toURI()));
+      } catch (final URISyntaxException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    try (InputStream in = url.openStream()) {
+      return ByteBuffer.wrap(in.readAllBytes()).asReadOnlyBuffer();
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Cannot read '%s'".formatted(name), e);
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package com.rips7.util.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable scanner over the lines and numbers of an ASCII input, either a {@link CharSequence} or a
+ * {@link ByteBuffer}, which parses numbers straight from the characters instead of splitting lines and tokens into
+ * {@link String}s. Anything that is not part of a number is a delimiter, and is skipped, so the same calls read
+ * {@code 3   4}, {@code 190: 10 19}, {@code 5,4} or {@code Button A: X+94, Y+34}. A {@code -} directly before a digit
+ * is a sign.
+ * <pre>
+ *   final TokenScanner scanner = TokenScanner.of(input);
+ *   while (scanner.nextLine()) {
+ *     while (scanner.hasNextNumber()) {
+ *       process(scanner.nextLong());
+ *     }
+ *   }
+ * </pre>
+ * Before the first call to {@link #nextLine()}, the whole input is the current line, so that inputs with no line
+ * structure can be read as one sequence of numbers.
+ */
+public final class TokenScanner {
+
+  private final CharSequence chars;
+  private final ByteBuffer bytes;
+  private final int limit;
+  private int pos;
+  private int lineStart;
+  private int lineEnd;
+  private int nextLineStart;
+
+  private TokenScanner(final CharSequence chars, final ByteBuffer bytes, final int start, final int limit) {
+    this.chars = chars;
+    this.bytes = bytes;
+    this.limit = limit;
+    this.pos = start;
+    this.lineStart = start;
+    this.lineEnd = limit;
+    this.nextLineStart = start;
+  }
+
+  /**
+   * Creates a scanner over a {@link CharSequence}
+   *
+   * @param input the input
+   * @return the {@link TokenScanner}
+   */
+  public static TokenScanner of(final CharSequence input) {
+    return new TokenScanner(input, null, 0, input.length());
+  }
+
+  /**
+   * Creates a scanner from the current position to the limit of a {@link ByteBuffer}. The buffer's position is not
+   * changed.
+   *
+   * @param input the input
+   * @return the {@link TokenScanner}
+   */
+  public static TokenScanner of(final ByteBuffer input) {
+    return new TokenScanner(null, input, input.position(), input.limit());
+  }
+
+  private int at(final int index) {
+    return bytes != null ? bytes.get(index) & 0xff : chars.charAt(index);
+  }
+
+  /**
+   * Advances to the next line, with the line terminator ({@code \n} or {@code \r\n}) excluded. A trailing line
+   * terminator at the end of the input does not produce an empty line.
+   *
+   * @return true if there is a line, false if the end of the input has been reached
+   */
+  public boolean nextLine() {
+    if (nextLineStart >= limit) {
+      pos = lineStart = lineEnd = limit;
+      return false;
+    }
+    int i = nextLineStart;
+    while (i < limit && at(i) != '\n') {
+      i++;
+    }
+    pos = lineStart = nextLineStart;
+    lineEnd = i > lineStart && at(i - 1) == '\r' ? i - 1 : i;
+    nextLineStart = i + 1;
+    return true;
+  }
+
+  /**
+   * @return the absolute index of the first character of the current line
+   */
+  public int lineStart() {
+    return lineStart;
+  }
+
+  /**
+   * @return the absolute index after the last character of the current line
+   */
+  public int lineEnd() {
+    return lineEnd;
+  }
+
+  /**
+   * @return the length of the current line
+   */
+  public int lineLength() {
+    return lineEnd - lineStart;
+  }
+
+  /**
+   * Gets a character of the current line
+   *
+   * @param index the index within the line
+   * @return the character
+   */
+  public char charAt(final int index) {
+    if (index < 0 || index >= lineLength()) {
+      throw new IndexOutOfBoundsException("%s is outside the line of %s".formatted(index, lineLength()));
+    }
+    return (char) at(lineStart + index);
+  }
+
+  /**
+   * Skips the delimiters up to the next number of the current line
+   *
+   * @return true if there is a number left in the current line, false otherwise
+   */
+  public boolean hasNextNumber() {
+    while (pos < lineEnd) {
+      final int c = at(pos);
+      if (isDigit(c) || c == '-' && pos + 1 < lineEnd && isDigit(at(pos + 1))) {
+        return true;
+      }
+      pos++;
+    }
+    return false;
+  }
+
+  /**
+   * Parses the next number of the current line, skipping the delimiters before it
+   *
+   * @return the number
+   * @throws NumberFormatException if there is no number left in the line, or it does not fit in a {@code long}
+   */
+  public long nextLong() {
+    if (!hasNextNumber()) {
+      throw new NumberFormatException("No number left in the line at %s".formatted(pos));
+    }
+    final boolean negative = at(pos) == '-';
+    if (negative) {
+      pos++;
+    }
+    // Accumulate negatively, so that Long.MIN_VALUE is parsed without overflowing
+    long result = 0;
+    int c;
+    while (pos < lineEnd && isDigit(c = at(pos))) {
+      if (result < Long.MIN_VALUE / 10) {
+        throw new NumberFormatException("Number at %s does not fit in a long".formatted(pos));
+      }
+      result = result * 10 - (c - '0');
+      if (result > 0) {
+        throw new NumberFormatException("Number at %s does not fit in a long".formatted(pos));
+      }
+      pos++;
+    }
+    if (!negative) {
+      if (result == Long.MIN_VALUE) {
+        throw new NumberFormatException("Number at %s does not fit in a long".formatted(pos));
+      }
+      return -result;
+    }
+    return result;
+  }
+
+  /**
+   * Parses the next number of the current line, skipping the delimiters before it
+   *
+   * @return the number
+   * @throws NumberFormatException if there is no number left in the line, or it does not fit in an {@code int}
+   */
+  public int nextInt() {
+    final long value = nextLong();
+    if (value != (int) value) {
+      throw new NumberFormatException("%s does not fit in an int".formatted(value));
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parses all the numbers left in the current line
+   *
+   * @return the numbers
+   */
+  public long[] nextLongs() {
+    // Count the numbers first, so that the array is allocated once with the right size
+    final int start = pos;
+    int count = 0;
+    while (hasNextNumber()) {
+      count++;
+      pos++;
+      while (pos < lineEnd && isDigit(at(pos))) {
+        pos++;
+      }
+    }
+    pos = start;
+    final long[] numbers = new long[count];
+    for (int i = 0; i < count; i++) {
+      numbers[i] = nextLong();
+    }
+    return numbers;
+  }
+
+  private static boolean isDigit(final int c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,58 @@
+package com.rips7.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans a whole day, from the start of its first job to the end of its last part
+ */
+@Name("com.rips7.Day")
+@Label("Day")
+@Category({ "Advent of Code", "Runner" })
+@Description("A day, from the start of its first job to the end of its last part")
+public class DayEvent extends jdk.jfr.Event {
+
+  @Label("Day")
+  public String day;
+
+  @Label("Parts")
+  @Description("The number of parts that ran")
+  public int parts;
+
+  /**
+   * Records a day that runs on the current thread
+   *
+   * @param day   the name of the day
+   * @param parts the number of parts that run
+   * @param solve the day
+   * @return the result of the day
+   * @param <R> the type of the result
+   */
+  public static <R> R record(final String day, final int parts, final Supplier<R> solve) {
+    final DayEvent event = new DayEvent();
+    event.begin();
+    try {
+      return solve.get();
+    } finally {
+      event.end(day, parts);
+    }
+  }
+
+  /**
+   * Ends the event, and commits it if it is enabled
+   *
+   * @param day   the name of the day
+   * @param parts the number of parts that ran
+   */
+  public void end(final String day, final int parts) {
+    if (shouldCommit()) {
+      this.day = day;
+      this.parts = parts;
+      commit();
+    }
+  }
+}
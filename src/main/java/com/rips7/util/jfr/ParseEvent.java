@@ -0,0 +1,42 @@
+package com.rips7.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans the parsing of the input of a day that parses once for both parts, including the warmups and repeats
+ */
+@Name("com.rips7.Parse")
+@Label("Parse")
+@Category({ "Advent of Code", "Runner" })
+@Description("Parsing the input of a day once for both parts, including the warmups and repeats")
+public class ParseEvent extends jdk.jfr.Event {
+
+  @Label("Day")
+  public String day;
+
+  /**
+   * Records the parsing of a day
+   *
+   * @param day   the name of the day
+   * @param parse the timed parsing
+   * @return the result of the parsing
+   * @param <R> the type of the result
+   */
+  public static <R> R record(final String day, final Supplier<R> parse) {
+    final ParseEvent event = new ParseEvent();
+    event.begin();
+    try {
+      return parse.get();
+    } finally {
+      if (event.shouldCommit()) {
+        event.day = day;
+        event.commit();
+      }
+    }
+  }
+}
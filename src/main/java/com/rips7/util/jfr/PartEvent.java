@@ -0,0 +1,61 @@
+package com.rips7.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans a part of a day, including the warmups and repeats
+ */
+@Name("com.rips7.Part")
+@Label("Part")
+@Category({ "Advent of Code", "Runner" })
+@Description("A part of a day, including the warmups and repeats")
+public class PartEvent extends jdk.jfr.Event {
+
+  @Label("Day")
+  public String day;
+
+  @Label("Part")
+  public int part;
+
+  @Label("Runs")
+  @Description("The number of warmup and measured runs")
+  public int runs;
+
+  @Label("Failed")
+  @Description("Whether the part threw, was cancelled or timed out")
+  public boolean failed;
+
+  /**
+   * Records a part of a day
+   *
+   * @param day   the name of the day
+   * @param part  the part (1 or 2)
+   * @param runs  the number of warmup and measured runs
+   * @param solve the timed part
+   * @return the result of the part
+   * @param <R> the type of the result
+   */
+  public static <R> R record(final String day, final int part, final int runs, final Supplier<R> solve) {
+    final PartEvent event = new PartEvent();
+    event.begin();
+    boolean failed = true;
+    try {
+      final R result = solve.get();
+      failed = false;
+      return result;
+    } finally {
+      if (event.shouldCommit()) {
+        event.day = day;
+        event.part = part;
+        event.runs = runs;
+        event.failed = failed;
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.rips7.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Spans a single run of a pathfinding search
+ */
+@Name("com.rips7.Search")
+@Label("Search")
+@Category({ "Advent of Code", "Pathfinding" })
+@Description("A single run of a pathfinding search")
+public class SearchEvent extends jdk.jfr.Event {
+
+  @Label("Algorithm")
+  public String algorithm;
+
+  @Label("Nodes Expanded")
+  public long expanded;
+
+  @Label("Revisits")
+  @Description("Nodes that were reached again after being expanded or improved")
+  public long revisits;
+
+  @Label("Peak Frontier")
+  @Description("The largest size of the frontier")
+  public long peakFrontier;
+}
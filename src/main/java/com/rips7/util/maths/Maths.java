@@ -84,7 +84,7 @@ public class Maths {
 
   public static <T> T[][] transpose(final Class<T> clazz, final T[][] arr) {
     final T[][] result = newGeneric2DArray(clazz, arr[0].length, arr.length);
-    loop2D(result.length, result[0].length, (r, c) -> result[r][c] = arr[c][r]);
+    loop2D(result.length, result[0].length, (final int r, final int c) -> result[r][c] = arr[c][r]);
     return result;
   }
 
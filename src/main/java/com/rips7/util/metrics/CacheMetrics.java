@@ -0,0 +1,42 @@
+package com.rips7.util.metrics;
+
+/**
+ * Counts the hits and misses of a memoisation cache in plain fields, and reports the totals to the bound
+ * {@link MetricsRegistry} once, so that a recursion with millions of lookups does not look up its counters on every
+ * call. An instance is meant for a single thread, e.g. one per part.
+ */
+public final class CacheMetrics {
+
+  private final String name;
+  private long hits;
+  private long misses;
+
+  /**
+   * Creates the counts of a cache
+   *
+   * @param name the prefix of the metric names (e.g. {@code day11.cache})
+   */
+  public CacheMetrics(final String name) {
+    this.name = name;
+  }
+
+  public void hit() {
+    hits++;
+  }
+
+  public void miss() {
+    misses++;
+  }
+
+  /**
+   * Reports the counts as the {@code hits} and {@code misses} counters under the name of the cache
+   */
+  public void report() {
+    final MetricsRegistry metrics = Metrics.current();
+    if (metrics == MetricsRegistry.NOOP) {
+      return;
+    }
+    metrics.counter(name + ".hits").add(hits);
+    metrics.counter(name + ".misses").add(misses);
+  }
+}
@@ -0,0 +1,18 @@
+package com.rips7.util.metrics;
+
+/**
+ * A monotonically increasing count of events
+ */
+public interface Counter {
+
+  /**
+   * A counter that ignores all events
+   */
+  Counter NOOP = n -> { };
+
+  void add(long n);
+
+  default void increment() {
+    add(1);
+  }
+}
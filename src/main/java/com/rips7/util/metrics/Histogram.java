@@ -0,0 +1,14 @@
+package com.rips7.util.metrics;
+
+/**
+ * A distribution of recorded values, such as the peak frontier size of each search
+ */
+public interface Histogram {
+
+  /**
+   * A histogram that ignores all values
+   */
+  Histogram NOOP = value -> { };
+
+  void record(long value);
+}
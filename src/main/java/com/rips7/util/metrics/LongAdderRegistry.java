@@ -0,0 +1,68 @@
+package com.rips7.util.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsRegistry} backed by {@link LongAdder}s, so that instruments can be updated from many threads (e.g.
+ * parallel streams) without contention
+ */
+public final class LongAdderRegistry implements MetricsRegistry {
+
+  private final Map<String, AdderCounter> counters = new ConcurrentHashMap<>();
+  private final Map<String, AdderHistogram> histograms = new ConcurrentHashMap<>();
+
+  @Override
+  public Counter counter(final String name) {
+    return counters.computeIfAbsent(name, n -> new AdderCounter());
+  }
+
+  @Override
+  public Histogram histogram(final String name) {
+    return histograms.computeIfAbsent(name, n -> new AdderHistogram());
+  }
+
+  @Override
+  public MetricsSnapshot snapshot() {
+    final Map<String, Long> counterValues = new TreeMap<>();
+    counters.forEach((name, counter) -> counterValues.put(name, counter.sum.sum()));
+    final Map<String, MetricsSnapshot.HistogramSnapshot> histogramValues = new TreeMap<>();
+    histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+    return new MetricsSnapshot(counterValues, histogramValues);
+  }
+
+  private static final class AdderCounter implements Counter {
+    private final LongAdder sum = new LongAdder();
+
+    @Override
+    public void add(final long n) {
+      sum.add(n);
+    }
+
+    @Override
+    public void increment() {
+      sum.increment();
+    }
+  }
+
+  private static final class AdderHistogram implements Histogram {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    @Override
+    public void record(final long value) {
+      count.increment();
+      sum.add(value);
+      max.accumulate(value);
+    }
+
+    private MetricsSnapshot.HistogramSnapshot snapshot() {
+      final long n = count.sum();
+      return new MetricsSnapshot.HistogramSnapshot(n, n == 0 ? 0 : (double) sum.sum() / n, n == 0 ? 0 : max.get());
+    }
+  }
+}
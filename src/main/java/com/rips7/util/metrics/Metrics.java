@@ -0,0 +1,86 @@
+package com.rips7.util.metrics;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The entry point of the metrics. Code reports to the {@link MetricsRegistry} bound to the running thread, which is
+ * {@link MetricsRegistry#NOOP} unless metrics are enabled and a measurement is in progress (see
+ * {@link com.rips7.util.Util#time}), so that instrumented code costs next to nothing by default. Hot loops should count
+ * into local variables and report the totals once, rather than call an instrument on every iteration.
+ * <p>
+ * Metrics are enabled with {@link #setEnabled(boolean)}, or with the system property {@code aoc.metrics=true}. Like
+ * {@link com.rips7.util.concurrent.CancellationToken}, the binding is not inherited by parallel streams, so the registry
+ * must be captured with {@link #current()} before forking.
+ */
+public final class Metrics {
+
+  private static volatile boolean enabled = Boolean.getBoolean("aoc.metrics");
+
+  private static final ThreadLocal<MetricsRegistry> CURRENT = ThreadLocal.withInitial(() -> MetricsRegistry.NOOP);
+
+  private Metrics() { }
+
+  /**
+   * @return true if metrics are collected, false otherwise
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the collection of metrics for the measurements that start afterwards
+   *
+   * @param enabled whether to collect metrics
+   */
+  public static void setEnabled(final boolean enabled) {
+    Metrics.enabled = enabled;
+  }
+
+  /**
+   * Gets the registry bound to the current thread
+   *
+   * @return the bound {@link MetricsRegistry}, or {@link MetricsRegistry#NOOP}
+   */
+  public static MetricsRegistry current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Gets a counter of the registry bound to the current thread
+   *
+   * @param name the name of the counter
+   * @return the {@link Counter}
+   */
+  public static Counter counter(final String name) {
+    return CURRENT.get().counter(name);
+  }
+
+  /**
+   * Gets a histogram of the registry bound to the current thread
+   *
+   * @param name the name of the histogram
+   * @return the {@link Histogram}
+   */
+  public static Histogram histogram(final String name) {
+    return CURRENT.get().histogram(name);
+  }
+
+  /**
+   * Runs a task on the current thread with a registry bound to it, and restores the previous binding afterwards
+   *
+   * @param registry the registry
+   * @param task     the task
+   * @return the result of the task
+   * @param <T> the type of the result
+   * @throws Exception if the task fails
+   */
+  public static <T> T call(final MetricsRegistry registry, final Callable<T> task) throws Exception {
+    final MetricsRegistry previous = CURRENT.get();
+    CURRENT.set(registry);
+    try {
+      return task.call();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+}
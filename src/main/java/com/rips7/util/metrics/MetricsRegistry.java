@@ -0,0 +1,34 @@
+package com.rips7.util.metrics;
+
+/**
+ * The service provider interface of the metrics. A registry creates the named {@link Counter}s and {@link Histogram}s,
+ * and takes a snapshot of their values. The same name always gives the same instrument.
+ */
+public interface MetricsRegistry {
+
+  /**
+   * A registry whose instruments ignore everything, used when metrics are disabled
+   */
+  MetricsRegistry NOOP = new MetricsRegistry() {
+    @Override
+    public Counter counter(final String name) {
+      return Counter.NOOP;
+    }
+
+    @Override
+    public Histogram histogram(final String name) {
+      return Histogram.NOOP;
+    }
+
+    @Override
+    public MetricsSnapshot snapshot() {
+      return MetricsSnapshot.EMPTY;
+    }
+  };
+
+  Counter counter(String name);
+
+  Histogram histogram(String name);
+
+  MetricsSnapshot snapshot();
+}
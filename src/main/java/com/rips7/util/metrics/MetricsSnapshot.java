@@ -0,0 +1,62 @@
+package com.rips7.util.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The values of the instruments of a {@link MetricsRegistry} at some point
+ *
+ * @param counters   the value of each counter, by name
+ * @param histograms the summary of each histogram, by name
+ */
+public record MetricsSnapshot(Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+
+  public static final MetricsSnapshot EMPTY = new MetricsSnapshot(Map.of(), Map.of());
+
+  /**
+   * The summary of a histogram
+   *
+   * @param count the number of recorded values
+   * @param mean  the mean of the recorded values
+   * @param max   the largest recorded value
+   */
+  public record HistogramSnapshot(long count, double mean, long max) {
+    @Override
+    public String toString() {
+      return "mean %.1f, max %s over %s".formatted(mean, max, count);
+    }
+  }
+
+  /**
+   * @return true if no instrument was used, false otherwise
+   */
+  public boolean isEmpty() {
+    return counters.isEmpty() && histograms.isEmpty();
+  }
+
+  /**
+   * Averages the counters over a number of runs. Histograms are kept as they are, since they already describe each
+   * recorded value.
+   *
+   * @param runs the number of runs
+   * @return the {@link MetricsSnapshot} of a single run
+   */
+  public MetricsSnapshot perRun(final int runs) {
+    if (runs == 1 || isEmpty()) {
+      return this;
+    }
+    final Map<String, Long> averaged = new TreeMap<>();
+    counters.forEach((name, value) -> averaged.put(name, value / runs));
+    return new MetricsSnapshot(averaged, histograms);
+  }
+
+  @Override
+  public String toString() {
+    return Stream.concat(
+        counters.entrySet().stream().map(e -> "%s %s".formatted(e.getKey(), e.getValue())),
+        histograms.entrySet().stream().map(e -> "%s (%s)".formatted(e.getKey(), e.getValue())))
+      .collect(Collectors.joining(", "));
+  }
+}